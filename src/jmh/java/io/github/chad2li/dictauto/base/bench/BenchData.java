@@ -0,0 +1,174 @@
+package io.github.chad2li.dictauto.base.bench;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.service.IDictService;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基准测试数据：平铺列表、深层嵌套、Map 三种响应结构，以及带父级的大字典
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/22 10:00
+ */
+public final class BenchData {
+    public static final String TYPE_STATUS = "status";
+    public static final String TYPE_PROVINCE = "province";
+    public static final String TYPE_CITY = "city";
+    /**
+     * 状态字典项数
+     */
+    public static final int STATUS_SIZE = 8;
+    /**
+     * 省份数，城市的父级
+     */
+    public static final int PROVINCE_SIZE = 100;
+    /**
+     * 每个省份的城市数
+     */
+    public static final int CITY_PER_PROVINCE = 1000;
+
+    /**
+     * 响应结构
+     *
+     * @param shape flat/deep/map
+     * @param size  flat、map 的行数，deep 的节点数约为 size
+     * @return 未注入的响应
+     */
+    public static Object response(String shape, int size) {
+        switch (shape) {
+            case "flat":
+                return flat(size);
+            case "deep":
+                return deep(size);
+            case "map":
+                Map<String, OrderVo> map = new LinkedHashMap<>(size * 2);
+                for (OrderVo order : flat(size)) {
+                    map.put(order.getNo(), order);
+                }
+                return map;
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    /**
+     * 平铺列表
+     */
+    public static List<OrderVo> flat(int size) {
+        List<OrderVo> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(order(i));
+        }
+        return list;
+    }
+
+    /**
+     * 深层嵌套，每个节点3个子节点
+     */
+    public static NodeVo deep(int size) {
+        int[] counter = new int[1];
+        return node(counter, size);
+    }
+
+    private static NodeVo node(int[] counter, int size) {
+        int i = counter[0]++;
+        NodeVo node = new NodeVo();
+        node.setOrder(order(i));
+        node.setTags(new HashSet<>(Arrays.asList(order(i + 1), order(i + 2))));
+        List<NodeVo> children = new ArrayList<>(3);
+        for (int c = 0; c < 3 && counter[0] < size; c++) {
+            children.add(node(counter, size));
+        }
+        node.setChildren(children);
+        return node;
+    }
+
+    private static OrderVo order(int i) {
+        OrderVo order = new OrderVo();
+        order.setNo("NO" + i);
+        order.setStatusDictId(String.valueOf(i % STATUS_SIZE));
+        long provinceId = i % PROVINCE_SIZE;
+        order.setProvinceDictId(provinceId);
+        order.setCityDictId(provinceId * CITY_PER_PROVINCE + (i * 31L) % CITY_PER_PROVINCE);
+        return order;
+    }
+
+    /**
+     * 所有字典项，城市约10万条
+     */
+    public static List<DictItemDto<Object>> dictList() {
+        List<DictItemDto<Object>> list = new ArrayList<>(STATUS_SIZE + PROVINCE_SIZE * (CITY_PER_PROVINCE + 1));
+        for (int i = 0; i < STATUS_SIZE; i++) {
+            list.add(new DictItemDto<>(String.valueOf(i), "0", TYPE_STATUS, "状态" + i));
+        }
+        for (long p = 0; p < PROVINCE_SIZE; p++) {
+            list.add(new DictItemDto<>(p, 0L, TYPE_PROVINCE, "省" + p));
+            for (long c = 0; c < CITY_PER_PROVINCE; c++) {
+                long cityId = p * CITY_PER_PROVINCE + c;
+                list.add(new DictItemDto<>(cityId, p, TYPE_CITY, "市" + cityId));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 内存字典服务，按类型返回
+     */
+    public static final class MemoryDictService implements IDictService<Object, DictItemDto<Object>> {
+        private final Map<String, List<DictItemDto<Object>>> byType = new HashMap<>(8);
+
+        public MemoryDictService(List<DictItemDto<Object>> dictList) {
+            for (DictItemDto<Object> item : dictList) {
+                byType.computeIfAbsent(item.getType(), k -> new ArrayList<>()).add(item);
+            }
+        }
+
+        @Override
+        public List<DictItemDto<Object>> list(String... type) {
+            List<DictItemDto<Object>> list = new ArrayList<>();
+            for (String t : type) {
+                List<DictItemDto<Object>> items = byType.get(t);
+                if (null != items) {
+                    list.addAll(items);
+                }
+            }
+            return list;
+        }
+    }
+
+    @Data
+    public static class OrderVo {
+        private String no;
+        @DictId(type = TYPE_STATUS)
+        private String statusDictId;
+        private DictItemDto<Object> statusDictItem;
+        @DictId(type = TYPE_PROVINCE)
+        private Long provinceDictId;
+        private DictItemDto<Object> provinceDictItem;
+        @DictId(type = TYPE_CITY, parentField = "provinceDictId")
+        private Long cityDictId;
+        private DictItemDto<Object> cityDictItem;
+    }
+
+    @Data
+    public static class NodeVo {
+        private OrderVo order;
+        private Set<OrderVo> tags;
+        private List<NodeVo> children;
+    }
+
+    private BenchData() {
+        // do nothing
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.chad2li.dictauto.base.bench;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.util.DictUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 约10万条带父级的字典项构建索引
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/22 10:40
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictMapBenchmark {
+    private List<DictItemDto<Object>> dictList;
+
+    @Setup
+    public void setup() {
+        dictList = BenchData.dictList();
+    }
+
+    @Benchmark
+    public Map<String, DictItemDto<Object>> dictMap() {
+        return DictUtil.dictMap(dictList);
+    }
+
+    @Benchmark
+    public DictIndex dictIndex() {
+        return DictIndex.of(dictList);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.chad2li.dictauto.base.bench;
+
+import io.github.chad2li.dictauto.base.aop.DictAopHandler;
+import io.github.chad2li.dictauto.base.cst.DictCst;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.util.DictUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字典注入基准测试，默认使用 {@code -prof gc} 输出每次操作的内存分配
+ * <p>
+ * 运行：{@code mvn -Pjmh test-compile exec:exec -Djmh.args="DictUtilBenchmark -prof gc"}
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/22 10:30
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictUtilBenchmark {
+    /**
+     * 响应结构
+     */
+    @Param({"flat", "deep", "map"})
+    public String shape;
+    /**
+     * 响应行数
+     */
+    @Param({"100", "5000"})
+    public int size;
+
+    private DictAutoProperties dictProps;
+    private List<DictItemDto<Object>> dictList;
+    private Map<String, DictItemDto<Object>> dictMap;
+    private DictAopHandler aopHandler;
+    /**
+     * 只读的响应，用于 queryDictAnnotation
+     */
+    private Object queryResponse;
+    /**
+     * 每次调用前重新生成，注入后属性已有值，不可复用
+     */
+    private Object response;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        dictProps = new DictAutoProperties();
+        dictProps.setDefaultParentId(DictCst.DEFAULT_PARENT_ID);
+        dictProps.setDictIdSuffix(DictCst.FIELD_DICT_ID_SUFFIX);
+        dictProps.setDictItemSuffix(DictCst.FIELD_DICT_ITEM_SUFFIX);
+        dictList = BenchData.dictList();
+        dictMap = DictUtil.dictMap(dictList);
+        aopHandler = new DictAopHandler(new BenchData.MemoryDictService(dictList), dictProps);
+        queryResponse = BenchData.response(shape, size);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        response = BenchData.response(shape, size);
+    }
+
+    @Benchmark
+    public Set<?> queryDictAnnotation() {
+        return DictUtil.queryDictAnnotation(queryResponse);
+    }
+
+    @Benchmark
+    public Object injectionDict() {
+        DictUtil.injectionDict(response, dictMap, dictProps);
+        return response;
+    }
+
+    @Benchmark
+    public Object afterReturning() {
+        aopHandler.afterReturning(response);
+        return response;
+    }
+}
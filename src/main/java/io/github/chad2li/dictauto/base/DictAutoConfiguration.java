@@ -1,13 +1,26 @@
 package io.github.chad2li.dictauto.base;
 
 import io.github.chad2li.dictauto.base.aop.DictAopHandler;
+import io.github.chad2li.dictauto.base.aop.DictWarmup;
+import io.github.chad2li.dictauto.base.jackson.DictJacksonModule;
+import io.github.chad2li.dictauto.base.metrics.DictMetrics;
+import io.github.chad2li.dictauto.base.metrics.MicrometerDictMetrics;
 import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.CachingDictService;
+import io.github.chad2li.dictauto.base.service.CoalescingDictService;
 import io.github.chad2li.dictauto.base.service.IDictService;
+import io.github.chad2li.dictauto.base.service.InterningDictService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
 
 /**
  * 自动配置 Dict 注入
@@ -22,10 +35,72 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 @EnableAspectJAutoProxy
 @EnableConfigurationProperties(DictAutoProperties.class)
 @ConditionalOnBean(name = {IDictService.SPRING_BEAN_NAME})
+@Import({DictAutoConfiguration.MetricsConfiguration.class, DictAutoConfiguration.JacksonConfiguration.class,
+        DictAutoConfiguration.WarmupConfiguration.class})
 public class DictAutoConfiguration {
     @Bean(DictAopHandler.SPRING_BEAN_NAME)
     public DictAopHandler dictAopHandler(@Qualifier(IDictService.SPRING_BEAN_NAME) IDictService iDictService,
-                                         DictAutoProperties dictProps) {
-        return new DictAopHandler(iDictService, dictProps);
+                                         DictAutoProperties dictProps,
+                                         ObjectProvider<DictMetrics> dictMetrics) {
+        DictMetrics metrics = dictMetrics.getIfAvailable(() -> DictMetrics.NOOP);
+        IDictService<?, ?> dictService = iDictService;
+        // 以下装饰均不注册为bean，避免与业务的 IDictService 冲突
+        if (dictProps.getIntern().isEnabled()) {
+            // 共用字典项实例
+            dictService = new InterningDictService<>(dictService);
+        }
+        if (dictProps.getCoalesce().isEnabled()) {
+            // 合并并发加载
+            dictService = new CoalescingDictService<>(dictService, dictProps.getCoalesce());
+        }
+        if (dictProps.getCache().isEnabled()) {
+            // 本地缓存
+            dictService = new CachingDictService<>(dictService, dictProps.getCache(), metrics,
+                    dictProps.getAsync().getTimeout());
+        }
+        return new DictAopHandler(dictService, dictProps, metrics);
+    }
+
+    /**
+     * 有 Micrometer 时发布字典注入指标，{@code dict-auto.metrics.enabled=false} 时关闭
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = "dict-auto.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class MetricsConfiguration {
+        @Bean
+        public DictMetrics dictMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            return null == registry ? DictMetrics.NOOP : new MicrometerDictMetrics(registry);
+        }
+    }
+
+    /**
+     * {@code dict-auto.jackson.enabled=true} 时注册 Jackson 模块，由 Spring Boot 添加到 ObjectMapper
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.fasterxml.jackson.databind.Module")
+    @ConditionalOnProperty(prefix = "dict-auto.jackson", name = "enabled", havingValue = "true")
+    static class JacksonConfiguration {
+        @Bean
+        public DictJacksonModule dictJacksonModule(
+                @Qualifier(DictAopHandler.SPRING_BEAN_NAME) DictAopHandler dictAopHandler,
+                DictAutoProperties dictProps) {
+            // 使用与切面相同的字典服务，共用本地缓存
+            return new DictJacksonModule(dictAopHandler.getDictService(), dictProps);
+        }
+    }
+
+    /**
+     * {@code dict-auto.warmup.enabled=true} 时在 Web 服务启动前预热
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "dict-auto.warmup", name = "enabled", havingValue = "true")
+    static class WarmupConfiguration {
+        @Bean
+        public DictWarmup dictWarmup(@Qualifier(DictAopHandler.SPRING_BEAN_NAME) DictAopHandler dictAopHandler,
+                                     DictAutoProperties dictProps) {
+            return new DictWarmup(dictAopHandler, dictProps);
+        }
     }
 }
@@ -9,13 +9,17 @@ import java.lang.annotation.Target;
  * @author chad
  * @date 2022/5/13 22:51
  * @since 1 by chad at 2022/5/13<br/>
- * 2 by chad at 2023/8/25: 增加的target
+ * 2 by chad at 2023/8/25: 增加的target<br/>
+ * 3 by chad at 2023/9/30: 增加pathField，支持集合值
  */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface DictId {
     String type();
 
+    /**
+     * 注入字典项的属性；dict id 属性为集合或数组时，注入 List&lt;DictItemDto&gt;
+     */
     String targetField() default "";
 
     String parentField() default "";
@@ -25,4 +29,16 @@ public @interface DictId {
      * 仅支持 String 和 Long 类型
      */
     String parent() default "";
+
+    /**
+     * 注入字典项及其祖先路径（如 省/市/区）的属性，为空时不注入；
+     * 属性为 List 时注入从根到该字典项的 DictItemDto，为 String 时注入以 pathSeparator 连接的 name<br/>
+     * 父级为同类型中 id 等于 parentId 的字典项；未开启本地缓存时该类型调用 IDictService.list 查询全部，不使用 listByKeys
+     */
+    String pathField() default "";
+
+    /**
+     * pathField 为 String 时，name 的分隔符
+     */
+    String pathSeparator() default "/";
 }
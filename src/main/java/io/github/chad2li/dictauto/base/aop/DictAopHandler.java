@@ -1,21 +1,46 @@
 package io.github.chad2li.dictauto.base.aop;
 
-import cn.hutool.core.collection.CollUtil;
-import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.annotation.DictResult;
 import io.github.chad2li.dictauto.base.cst.DictCst;
 import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.DictKeyDto;
+import io.github.chad2li.dictauto.base.engine.DictCollector;
+import io.github.chad2li.dictauto.base.engine.DictInjectedMarks;
+import io.github.chad2li.dictauto.base.engine.DictMissingReport;
+import io.github.chad2li.dictauto.base.engine.DictStreamInjector;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.metrics.DictMetrics;
 import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.CachingDictService;
 import io.github.chad2li.dictauto.base.service.IDictService;
+import io.github.chad2li.dictauto.base.util.DictExecutorUtil;
 import io.github.chad2li.dictauto.base.util.DictUtil;
-import org.aspectj.lang.annotation.AfterReturning;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.annotation.Order;
+import org.springframework.lang.Nullable;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 使用AOP拦截接口请求，给响应自动注入字典值
@@ -24,9 +49,10 @@ import java.util.Set;
  * @date 2022/5/18 19:35
  * @since 1 create by chad
  */
+@Slf4j
 @Aspect
 @Order(DictAopHandler.AOP_ORDER_SEQ)
-public class DictAopHandler {
+public class DictAopHandler implements DisposableBean {
     /**
      * springBean注入名称
      */
@@ -36,44 +62,302 @@ public class DictAopHandler {
      */
     public static final int AOP_ORDER_SEQ = 1024;
 
-    private static final Logger log = LoggerFactory.getLogger(DictAopHandler.class);
+    /**
+     * 非拦截调用时指标的 method tag
+     */
+    private static final String UNKNOWN_METHOD = "unknown";
 
     private IDictService<?, ?> dictService;
     private DictAutoProperties dictProps;
+    private DictMetrics metrics;
+    /**
+     * 各方法的注入计划
+     */
+    private final Map<Method, DictMethodPlan> methodPlans = new ConcurrentHashMap<>();
+    /**
+     * 异步加载字典值的线程池，未开启异步加载时为null
+     */
+    @Nullable
+    private final ExecutorService asyncExecutor;
+    /**
+     * 已注入的响应，未开启或无本地缓存时为null
+     */
+    @Nullable
+    private final DictInjectedMarks injectedMarks;
 
     public DictAopHandler(IDictService<?, ?> dictService, DictAutoProperties dictProps) {
+        this(dictService, dictProps, DictMetrics.NOOP);
+    }
+
+    public DictAopHandler(IDictService<?, ?> dictService, DictAutoProperties dictProps, DictMetrics metrics) {
         this.dictService = dictService;
         this.dictProps = dictProps;
+        this.metrics = metrics;
+        this.asyncExecutor = dictProps.getAsync().isEnabled()
+                ? DictExecutorUtil.newAsyncExecutor(dictProps.getAsync()) : null;
+        this.injectedMarks = idempotent(dictService, dictProps) ? new DictInjectedMarks() : null;
+    }
+
+    /**
+     * 仅有本地缓存时跳过已注入的响应，以快照版本判断字典值是否变化
+     */
+    private static boolean idempotent(IDictService<?, ?> dictService, DictAutoProperties dictProps) {
+        if (!dictProps.getIdempotent().isEnabled()) {
+            return false;
+        }
+        if (!(dictService instanceof CachingDictService)) {
+            log.warn("Dict idempotent ignored, requires dict-auto.cache.enabled=true");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 拦截 {@link DictResult} 方法，{@link Stream}、{@link Iterator} 响应包装为消费时分块注入，其他响应直接注入
+     * <p>
+     * 返回类型不可能有字典属性时不遍历响应；开启本地缓存时，方法执行前预取返回类型中可确定的字典类型；
+     * 开启 Jackson 序列化注入时，非流式响应不遍历
+     * </p>
+     *
+     * @param joinPoint 切点
+     * @return 方法响应结果
+     * @throws Throwable 方法异常
+     */
+    @Around("@annotation(io.github.chad2li.dictauto.base.annotation.DictResult)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        DictMethodPlan plan = methodPlan(joinPoint);
+        if (null != plan && !plan.isReachable()) {
+            return joinPoint.proceed();
+        }
+        if (null != plan && dictService instanceof CachingDictService) {
+            ((CachingDictService<?, ?>) dictService).prefetch(plan.getTypes());
+        }
+        Object result = joinPoint.proceed();
+        String method = metrics.isEnabled() ? methodTag(joinPoint) : UNKNOWN_METHOD;
+        if (result instanceof Stream) {
+            return DictStreamInjector.wrap((Stream<?>) result, c -> loadIndex(c, method),
+                    r -> report(r, method), this.dictProps);
+        }
+        if (result instanceof Iterator) {
+            return DictStreamInjector.wrap((Iterator<?>) result, c -> loadIndex(c, method),
+                    r -> report(r, method), this.dictProps);
+        }
+        if (dictProps.getJackson().isEnabled()) {
+            // 序列化时注入
+            return result;
+        }
+        inject(result, method);
+        return result;
     }
 
     /**
      * 自动解析并注入字典值
      * <p>
-     * 1. 响应是否有 field 有 {@code DictId} 注解<br/>
-     * 2. 解析字典id和类型<br/>
-     * 3. 调用实现类，获取字典项<br/>
-     * 4. 设置值<br/>
+     * 1. 遍历响应，收集有 {@code DictId} 注解且需注入的属性<br/>
+     * 2. 调用实现类，一次获取所有类型的字典项<br/>
+     * 3. 设置已收集属性的值，不再遍历响应<br/>
      * </p>
      *
      * @param result 方法响应结果
      */
-    @AfterReturning(value = "@annotation(io.github.chad2li.dictauto.base.annotation.DictResult)",
-            returning = "result")
     public void afterReturning(Object result) {
-        try {
-            log.debug("Dict classpath: {}", Objects.requireNonNull(DictAopHandler.class.getClassLoader().getResource(".")).getFile());
-        } catch (Exception e) {
-            log.debug("get classpath error", e);
+        inject(result, UNKNOWN_METHOD);
+    }
+
+    private void inject(Object result, String method) {
+        if (null != injectedMarks && null != result) {
+            if (injectedMarks.isMarked(result, dictVersion())) {
+                // 已注入的响应，如缓存的方法结果
+                return;
+            }
         }
-        // 1. 查询所有字典注解
-        Set<DictId> dictSet = DictUtil.queryDictAnnotation(result);
-        if (CollUtil.isEmpty(dictSet)) {
+        boolean measure = metrics.isEnabled();
+        long start = measure ? System.nanoTime() : 0L;
+        // 1. 遍历一次响应，收集待注入的字典属性
+        DictCollector collector = DictUtil.collect(result, this.dictProps);
+        if (measure) {
+            metrics.collect(method, System.nanoTime() - start, collector.objectCount());
+        }
+        if (collector.isEmpty()) {
+            mark(result);
+            return;
+        }
+        if (dictProps.getLazy().isEnabled()) {
+            // 注入延迟获取的字典项，首次读取时查询字典值
+            start = measure ? System.nanoTime() : 0L;
+            collector.injectLazy(() -> loadIndex(collector, method));
+            if (measure) {
+                metrics.inject(method, System.nanoTime() - start);
+                collector.slotCounts().forEach((type, count) -> metrics.slots(method, type, count));
+            }
+            mark(result);
             return;
         }
         // 2. 指查询字典值
-        String[] typeArray = dictSet.stream().map(DictId::type).distinct().toArray(String[]::new);
-        List<? extends DictItemDto<?>> dictList = dictService.list(typeArray);
-        // 3. 递归注入字典值
-        DictUtil.injectionDict(result, DictUtil.dictMap(dictList), this.dictProps);
+        DictIndex dictIndex = loadIndex(collector, method);
+        // 3. 注入已收集的字典属性
+        start = measure ? System.nanoTime() : 0L;
+        collector.inject(dictIndex);
+        if (measure) {
+            metrics.inject(method, System.nanoTime() - start);
+            collector.slotCounts().forEach((type, count) -> metrics.slots(method, type, count));
+        }
+        report(collector.missingReport(), method);
+        if (!dictIndex.isIncomplete()) {
+            // 降级注入的响应下次重新注入
+            mark(result);
+        }
+    }
+
+    /**
+     * 每次响应汇总记录一次缺失的字典项，流式响应每块记录一次
+     */
+    private void report(DictMissingReport report, String method) {
+        if (report.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> counts = report.counts();
+        log.warn("Dict missing in {}: {}, first: {}", method, counts, report.getItems().get(0));
+        if (metrics.isEnabled()) {
+            counts.forEach((type, count) -> metrics.missing(method, type, count));
+        }
+    }
+
+    /**
+     * 标记已注入的响应，使用注入后的字典版本，注入时加载的快照不使标记失效
+     */
+    private void mark(@Nullable Object result) {
+        if (null != injectedMarks && null != result) {
+            injectedMarks.mark(result, dictVersion());
+        }
+    }
+
+    /**
+     * @return 本地缓存的快照版本，仅在 {@code injectedMarks} 不为null时调用
+     */
+    private long dictVersion() {
+        return ((CachingDictService<?, ?>) dictService).version();
+    }
+
+    /**
+     * 获取字典索引，有本地缓存时直接使用缓存的按类型索引，否则仅查询被引用的字典项，需注入路径的类型查询全部
+     *
+     * @param collector 已收集的字典属性
+     * @param method    指标的 method tag
+     * @return 字典索引
+     */
+    private DictIndex loadIndex(DictCollector collector, String method) {
+        if (!metrics.isEnabled()) {
+            return loadIndex(collector);
+        }
+        long start = System.nanoTime();
+        DictIndex dictIndex = loadIndex(collector);
+        metrics.fetch(method, System.nanoTime() - start);
+        for (String type : dictIndex.types()) {
+            metrics.items(type, dictIndex.typeIndex(type).size());
+        }
+        return dictIndex;
+    }
+
+    private DictIndex loadIndex(DictCollector collector) {
+        if (null == asyncExecutor) {
+            return fetchIndex(collector);
+        }
+        // 异步加载，超时或失败时降级
+        DictAutoProperties.Async asyncProps = dictProps.getAsync();
+        CompletableFuture<DictIndex> future = fetchIndexAsync(collector, asyncExecutor);
+        try {
+            return future.get(asyncProps.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            log.warn("Dict load timeout: {}ms, types: {}", asyncProps.getTimeout().toMillis(),
+                    Arrays.toString(collector.types()));
+        } catch (ExecutionException ex) {
+            log.warn("Dict load error, types: {}", Arrays.toString(collector.types()), ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return fallbackIndex(collector, asyncProps.getFallback());
+    }
+
+    private DictIndex fetchIndex(DictCollector collector) {
+        if (dictService instanceof CachingDictService) {
+            // 属性为 DictItemDto 的子类时不使用快照文件中的字典项
+            return ((CachingDictService<?, ?>) dictService).index(collector.acceptsPlain(), collector.types());
+        }
+        Set<String> pathTypes = collector.pathTypes();
+        if (pathTypes.isEmpty()) {
+            List<? extends DictItemDto<?>> dictList = dictService.listByKeys(collector.keys());
+            return DictIndex.of(dictList);
+        }
+        // 路径需要同类型的祖先字典项，按类型查询全部，其他类型仍仅查询被引用的字典项
+        List<DictItemDto<?>> dictList = new ArrayList<>(dictService.list(pathTypes.toArray(new String[0])));
+        List<DictKeyDto> keys = collector.keys().stream().filter(key -> !pathTypes.contains(key.getType()))
+                .collect(Collectors.toList());
+        if (!keys.isEmpty()) {
+            dictList.addAll(dictService.listByKeys(keys));
+        }
+        return DictIndex.of(dictList);
+    }
+
+    private CompletableFuture<DictIndex> fetchIndexAsync(DictCollector collector, Executor executor) {
+        if (dictService instanceof CachingDictService || !collector.pathTypes().isEmpty()) {
+            return CompletableFuture.supplyAsync(() -> fetchIndex(collector), executor);
+        }
+        return dictService.listByKeysAsync(collector.keys(), executor).thenApply(DictIndex::of);
+    }
+
+    /**
+     * 降级的字典索引，标记为不完整，缺失的字典项不注入
+     */
+    private DictIndex fallbackIndex(DictCollector collector, DictAutoProperties.Async.Fallback fallback) {
+        if (DictAutoProperties.Async.Fallback.STALE == fallback && dictService instanceof CachingDictService) {
+            return ((CachingDictService<?, ?>) dictService).staleIndex(collector.acceptsPlain(), collector.types())
+                    .incomplete();
+        }
+        return DictIndex.EMPTY.incomplete();
+    }
+
+    /**
+     * @return 方法的注入计划，无法获取方法时为null
+     */
+    @Nullable
+    private DictMethodPlan methodPlan(ProceedingJoinPoint joinPoint) {
+        Signature signature = joinPoint.getSignature();
+        if (!(signature instanceof MethodSignature)) {
+            return null;
+        }
+        return methodPlan(((MethodSignature) signature).getMethod());
+    }
+
+    /**
+     * @return 方法的注入计划，每个方法仅计算一次
+     */
+    DictMethodPlan methodPlan(Method method) {
+        return methodPlans.computeIfAbsent(method, DictMethodPlan::of);
+    }
+
+    /**
+     * @return 指标的 method tag：类名.方法名
+     */
+    private static String methodTag(ProceedingJoinPoint joinPoint) {
+        Signature signature = joinPoint.getSignature();
+        return signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+    }
+
+    /**
+     * @return 字典服务，含本地缓存等装饰
+     */
+    public IDictService<?, ?> getDictService() {
+        return dictService;
+    }
+
+    @Override
+    public void destroy() {
+        if (null != asyncExecutor) {
+            asyncExecutor.shutdownNow();
+        }
+        if (dictService instanceof CachingDictService) {
+            ((CachingDictService<?, ?>) dictService).close();
+        }
     }
 }
@@ -0,0 +1,72 @@
+package io.github.chad2li.dictauto.base.aop;
+
+import io.github.chad2li.dictauto.base.plan.DictReachability;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.BaseStream;
+
+/**
+ * {@code DictResult} 方法的注入计划，根据方法的泛型返回类型计算一次
+ * <p>
+ * 1. 返回类型不可能有字典属性时，跳过遍历<br/>
+ * 2. 可静态确定的字典类型在方法执行前预取<br/>
+ * {@link java.util.stream.Stream}、{@link Iterator} 按元素类型计算
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/25 10:00
+ */
+final class DictMethodPlan {
+    private static final String[] EMPTY_TYPES = new String[0];
+
+    /**
+     * 返回值中是否可能有字典属性
+     */
+    private final boolean reachable;
+    /**
+     * 可静态确定的字典类型
+     */
+    private final String[] types;
+
+    static DictMethodPlan of(Method method) {
+        Type returnType = elementType(method.getGenericReturnType());
+        if (!DictReachability.mayReach(returnType)) {
+            return new DictMethodPlan(false, EMPTY_TYPES);
+        }
+        Set<String> types = DictReachability.dictTypes(returnType);
+        return new DictMethodPlan(true, types.toArray(EMPTY_TYPES));
+    }
+
+    /**
+     * 流式响应按元素类型计算
+     */
+    private static Type elementType(Type returnType) {
+        if (!(returnType instanceof ParameterizedType)) {
+            return returnType;
+        }
+        ParameterizedType parameterized = (ParameterizedType) returnType;
+        Class<?> raw = (Class<?>) parameterized.getRawType();
+        if (BaseStream.class.isAssignableFrom(raw) || Iterator.class.isAssignableFrom(raw)) {
+            return parameterized.getActualTypeArguments()[0];
+        }
+        return returnType;
+    }
+
+    private DictMethodPlan(boolean reachable, String[] types) {
+        this.reachable = reachable;
+        this.types = types;
+    }
+
+    boolean isReachable() {
+        return reachable;
+    }
+
+    String[] getTypes() {
+        return types;
+    }
+}
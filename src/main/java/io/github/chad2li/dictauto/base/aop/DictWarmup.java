@@ -0,0 +1,139 @@
+package io.github.chad2li.dictauto.base.aop;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.lang.ClassScanner;
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.annotation.DictResult;
+import io.github.chad2li.dictauto.base.plan.DictClassPlan;
+import io.github.chad2li.dictauto.base.plan.DictReachability;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.CachingDictService;
+import io.github.chad2li.dictauto.base.service.IDictService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 启动预热：所有单例创建后、Web 服务启动前执行，首个请求不再解析类和加载字典
+ * <p>
+ * 1. 扫描配置的包（未配置时为 Spring Boot 自动配置包）中有 {@link DictId} 属性或 {@link DictResult} 方法的类<br/>
+ * 2. 计算类的注入计划、{@link DictResult} 方法的注入计划<br/>
+ * 3. 一次加载其中可静态确定的所有字典类型，开启本地缓存时放入缓存<br/>
+ * 预热失败仅记录日志，不影响启动
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/3 10:00
+ */
+@Slf4j
+public class DictWarmup implements SmartInitializingSingleton, BeanFactoryAware {
+    private final DictAopHandler dictAopHandler;
+    private final DictAutoProperties dictProps;
+    private BeanFactory beanFactory;
+
+    public DictWarmup(DictAopHandler dictAopHandler, DictAutoProperties dictProps) {
+        this.dictAopHandler = dictAopHandler;
+        this.dictProps = dictProps;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        try {
+            List<String> packages = packages();
+            Set<String> types = warmUp(packages);
+            log.info("Dict warm-up finished, packages: {}, types: {}, cost: {}ms", packages, types,
+                    (System.nanoTime() - start) / 1_000_000L);
+        } catch (RuntimeException | LinkageError ex) {
+            log.warn("Dict warm-up error", ex);
+        }
+    }
+
+    /**
+     * 预热包中的类
+     *
+     * @param packages 包名
+     * @return 已加载的字典类型
+     * @author chad
+     * @since 1 by chad at 2023/10/3
+     */
+    public Set<String> warmUp(List<String> packages) {
+        Set<String> types = new LinkedHashSet<>(16);
+        for (String pkg : packages) {
+            ClassScanner scanner = new ClassScanner(pkg, DictWarmup::isDictClass).setIgnoreLoadError(true);
+            for (Class<?> cls : scanner.scan()) {
+                warmUp(cls, types);
+            }
+        }
+        if (!types.isEmpty()) {
+            load(types.toArray(new String[0]));
+        }
+        return types;
+    }
+
+    private void warmUp(Class<?> cls, Set<String> types) {
+        if (DictReachability.reachable(cls)) {
+            DictClassPlan.of(cls, dictProps);
+            types.addAll(DictReachability.dictTypes(cls));
+        }
+        for (Method method : cls.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(DictResult.class)) {
+                Collections.addAll(types, dictAopHandler.methodPlan(method).getTypes());
+            }
+        }
+    }
+
+    /**
+     * 有本地缓存时放入缓存，否则仅调用一次字典服务，预热其连接
+     */
+    private void load(String[] types) {
+        IDictService<?, ?> dictService = dictAopHandler.getDictService();
+        if (dictService instanceof CachingDictService) {
+            ((CachingDictService<?, ?>) dictService).index(types);
+        } else {
+            dictService.list(types);
+        }
+    }
+
+    private List<String> packages() {
+        List<String> packages = dictProps.getWarmup().getPackages();
+        if (CollUtil.isNotEmpty(packages)) {
+            return packages;
+        }
+        if (null != beanFactory && AutoConfigurationPackages.has(beanFactory)) {
+            return AutoConfigurationPackages.get(beanFactory);
+        }
+        return Collections.emptyList();
+    }
+
+    private static boolean isDictClass(Class<?> cls) {
+        for (Method method : cls.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(DictResult.class)) {
+                return true;
+            }
+        }
+        for (Class<?> c = cls; null != c && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(DictId.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -25,5 +25,9 @@ public class DictCst {
      * 字典项属性后缀
      */
     public static final String FIELD_DICT_ITEM_SUFFIX = "DictItem";
+    /**
+     * 默认的最大解析深度
+     */
+    public static final int DEFAULT_MAX_DEPTH = 32;
 
 }
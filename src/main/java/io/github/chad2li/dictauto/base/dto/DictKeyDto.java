@@ -0,0 +1,38 @@
+package io.github.chad2li.dictauto.base.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 被引用的字典项key
+ * <p>
+ * parentId、id 为对象中的原始值，可能为 String 或数字，与 {@code DictUtil.dictKey} 一样按
+ * {@code String.valueOf(value).trim()} 匹配字典项
+ * </p>
+ *
+ * @author chad
+ * @since 2 create by chad at 2023/9/16 10:05
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DictKeyDto implements Serializable {
+    /**
+     * 字典类型
+     */
+    private String type;
+    /**
+     * 父级，null表示无父级
+     */
+    private Object parentId;
+    /**
+     * dict id
+     */
+    private Object id;
+
+
+    private static final long serialVersionUID = 1L;
+}
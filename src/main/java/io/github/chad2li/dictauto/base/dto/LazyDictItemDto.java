@@ -0,0 +1,122 @@
+package io.github.chad2li.dictauto.base.dto;
+
+import org.springframework.lang.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * 延迟获取的字典项，首次读取属性时才获取字典值
+ * <p>
+ * 开启 {@code dict-auto.lazy.enabled} 时注入到类型为 {@link DictItemDto} 的属性，
+ * 响应中未被序列化的字典项不查询；同一响应中的字典项共用一次字典值获取。
+ * 字典项不存在时 name 为null，不按 {@code dict-auto.missing.policy} 处理；仅有 {@link DictItemDto} 的属性，子类的其他属性通过 {@link #resolved()} 获取
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/1 10:00
+ */
+public class LazyDictItemDto<I> extends DictItemDto<I> {
+    private final DictKeyDto key;
+    /**
+     * 获取字典项，获取后置为null
+     */
+    @Nullable
+    private transient volatile Function<DictKeyDto, ? extends DictItemDto<?>> resolver;
+    @Nullable
+    private transient DictItemDto<?> resolved;
+
+    public LazyDictItemDto(DictKeyDto key, Function<DictKeyDto, ? extends DictItemDto<?>> resolver) {
+        this.key = key;
+        this.resolver = resolver;
+    }
+
+    /**
+     * 获取字典项
+     *
+     * @return 字典项，不存在时为null
+     * @author chad
+     * @since 1 by chad at 2023/10/1
+     */
+    @Nullable
+    public DictItemDto<?> resolved() {
+        resolve();
+        return resolved;
+    }
+
+    /**
+     * 非 getter 命名，不被序列化
+     *
+     * @return true已获取字典值
+     */
+    public boolean hasResolved() {
+        return null == resolver;
+    }
+
+    @Override
+    public I getId() {
+        resolve();
+        return super.getId();
+    }
+
+    @Override
+    public I getParentId() {
+        resolve();
+        return super.getParentId();
+    }
+
+    @Override
+    public String getType() {
+        resolve();
+        return super.getType();
+    }
+
+    @Override
+    public String getName() {
+        resolve();
+        return super.getName();
+    }
+
+    private void resolve() {
+        if (null == resolver) {
+            return;
+        }
+        synchronized (this) {
+            Function<DictKeyDto, ? extends DictItemDto<?>> current = resolver;
+            if (null == current) {
+                return;
+            }
+            DictItemDto<?> item = current.apply(key);
+            if (null != item) {
+                this.id = cast(item.getId());
+                this.parentId = cast(item.getParentId());
+                this.type = item.getType();
+                this.name = item.getName();
+            } else {
+                this.id = cast(key.getId());
+                this.parentId = cast(key.getParentId());
+                this.type = key.getType();
+            }
+            this.resolved = item;
+            this.resolver = null;
+        }
+    }
+
+    /**
+     * 字典 id 按注入属性的泛型类型使用，不做转换
+     */
+    @SuppressWarnings("unchecked")
+    private static <I> I cast(@Nullable Object id) {
+        return (I) id;
+    }
+
+    /**
+     * 序列化为已获取值的 {@link DictItemDto}
+     */
+    protected Object writeReplace() {
+        resolve();
+        return new DictItemDto<>(id, parentId, type, name);
+    }
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,39 @@
+package io.github.chad2li.dictauto.base.dto;
+
+/**
+ * 占位字典项，{@code dict-auto.missing.policy=PLACEHOLDER} 时注入到字典项缺失的属性
+ * <p>
+ * 同一类型的所有响应共用同一实例，因此不可修改，调用 setter 抛出 {@link UnsupportedOperationException}；id、parentId 为null
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/6 10:00
+ */
+public final class PlaceholderDictItemDto extends DictItemDto<Object> {
+    private static final long serialVersionUID = 1L;
+
+    public PlaceholderDictItemDto(String type, String name) {
+        super(null, null, type, name);
+    }
+
+    @Override
+    public void setId(Object id) {
+        throw new UnsupportedOperationException("Placeholder dict item is immutable");
+    }
+
+    @Override
+    public void setParentId(Object parentId) {
+        throw new UnsupportedOperationException("Placeholder dict item is immutable");
+    }
+
+    @Override
+    public void setType(String type) {
+        throw new UnsupportedOperationException("Placeholder dict item is immutable");
+    }
+
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException("Placeholder dict item is immutable");
+    }
+}
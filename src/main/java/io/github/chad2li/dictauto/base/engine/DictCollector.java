@@ -0,0 +1,671 @@
+package io.github.chad2li.dictauto.base.engine;
+
+import cn.hutool.core.util.ObjectUtil;
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.DictKeyDto;
+import io.github.chad2li.dictauto.base.dto.LazyDictItemDto;
+import io.github.chad2li.dictauto.base.dto.PlaceholderDictItemDto;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.plan.DictAccessor;
+import io.github.chad2li.dictauto.base.plan.DictClassPlan;
+import io.github.chad2li.dictauto.base.plan.DictSlot;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.util.DictUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 字典注入收集器
+ * <p>
+ * 1. {@link #collect(Object)} 遍历一次对象，记录所有待注入的字典属性及其类型<br/>
+ * 2. 调用方根据 {@link #types()} 或 {@link #keys()} 一次性获取字典值<br/>
+ * 3. {@link #inject(DictIndex)} 直接注入记录的属性，不再遍历对象<br/>
+ * id 属性为集合或数组时，每个元素分别获取字典值，按顺序注入 {@code List<DictItemDto>}；
+ * {@link #injectLazy(Supplier)} 注入 {@link LazyDictItemDto}，首次读取时才获取字典值
+ * </p>
+ * <p>
+ * 按引用记录已遍历的对象和集合，被多处引用的对象只解析一次，循环引用不会无限递归；
+ * 并行遍历时各任务共用同一个线程安全的记录，包含并行前已遍历的祖先对象，回指祖先的引用不会重复遍历
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/13 09:40
+ */
+@Slf4j
+public class DictCollector {
+    /**
+     * 占位字典项，key: name -> type
+     */
+    private static final Map<String, Map<String, DictItemDto<?>>> PLACEHOLDERS = new ConcurrentHashMap<>(4);
+
+    private final DictAutoProperties dictProps;
+    /**
+     * 待注入的字典属性
+     */
+    private final List<Pending> pendings = new ArrayList<>();
+    /**
+     * 待注入的字典类型
+     */
+    private final Set<String> types = new LinkedHashSet<>(4);
+    /**
+     * 需注入路径的字典类型
+     */
+    private final Set<String> pathTypes = new LinkedHashSet<>(2);
+    /**
+     * 已遍历的对象数，不含集合和 Map
+     */
+    private int objectCount;
+    /**
+     * 待注入的属性是否均可注入 {@link DictItemDto}
+     */
+    private boolean plain = true;
+    /**
+     * 已遍历的对象和集合，按引用比较；并行遍历时替换为各任务共用的 {@link ConcurrentIdentitySet}
+     */
+    private Set<Object> visited;
+    private final DictMissingReport missingReport = new DictMissingReport();
+
+    public DictCollector(DictAutoProperties dictProps) {
+        this(dictProps, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private DictCollector(DictAutoProperties dictProps, Set<Object> visited) {
+        this.dictProps = dictProps;
+        this.visited = visited;
+    }
+
+    /**
+     * 遍历对象，记录其中待注入的字典属性
+     *
+     * @param dictObj 对象
+     * @author chad
+     * @since 1 by chad at 2023/9/13
+     */
+    public void collect(@Nullable Object dictObj) {
+        collect(dictObj, 0);
+    }
+
+    /**
+     * @param depth 对象所在层级，集合、Map 与其元素同层
+     */
+    private void collect(@Nullable Object dictObj, int depth) {
+        if (null == dictObj) {
+            return;
+        }
+        if (dictObj instanceof DictItemDto) {
+            return;
+        }
+        if (!visited.add(dictObj)) {
+            // 已解析或循环引用
+            return;
+        }
+        if (dictObj instanceof List && dictObj instanceof RandomAccess) {
+            collectList((List<?>) dictObj, depth);
+        } else if (dictObj instanceof Object[]) {
+            collectList(Arrays.asList((Object[]) dictObj), depth);
+        } else if (dictObj instanceof Iterable) {
+            for (Object o : (Iterable<?>) dictObj) {
+                collect(o, depth);
+            }
+        } else if (dictObj instanceof Map) {
+            // map，仅解析 value
+            for (Object o : ((Map<?, ?>) dictObj).values()) {
+                collect(o, depth);
+            }
+        } else {
+            collectObject(dictObj, depth);
+        }
+    }
+
+    /**
+     * 遍历可随机访问的集合，超过阈值时拆分为 fork/join 任务，各任务使用独立的收集器，完成后合并；
+     * 已遍历的对象改为各任务共用的线程安全记录
+     */
+    private void collectList(List<?> list, int depth) {
+        int size = list.size();
+        if (!isParallel(size)) {
+            for (int i = 0; i < size; i++) {
+                collect(list.get(i), depth);
+            }
+            return;
+        }
+        if (!(visited instanceof ConcurrentIdentitySet)) {
+            visited = new ConcurrentIdentitySet(visited);
+        }
+        merge(ForkJoinPool.commonPool().invoke(new CollectTask(list, depth, 0, size)));
+    }
+
+    private void merge(DictCollector other) {
+        pendings.addAll(other.pendings);
+        types.addAll(other.types);
+        pathTypes.addAll(other.pathTypes);
+        objectCount += other.objectCount;
+        plain &= other.plain;
+    }
+
+    private boolean isParallel(int size) {
+        DictAutoProperties.Parallel parallel = dictProps.getParallel();
+        return parallel.isEnabled() && size > parallel.getThreshold();
+    }
+
+    private int chunkSize() {
+        return Math.max(1, dictProps.getParallel().getChunkSize());
+    }
+
+    private void collectObject(Object dictObj, int depth) {
+        objectCount++;
+        DictClassPlan plan = DictClassPlan.of(dictObj.getClass(), dictProps);
+        if (plan.isEmpty()) {
+            return;
+        }
+        List<DictSlot> slots = plan.getSlots();
+        for (int i = 0, size = slots.size(); i < size; i++) {
+            collectSlot(dictObj, slots.get(i));
+        }
+        // 深度解析
+        List<DictAccessor> children = plan.getChildren();
+        if (children.isEmpty()) {
+            return;
+        }
+        if (depth >= dictProps.getMaxDepth()) {
+            log.debug("Skip children of {}, exceeds max depth: {}", dictObj.getClass().getName(), depth);
+            return;
+        }
+        for (int i = 0, size = children.size(); i < size; i++) {
+            collect(children.get(i).get(dictObj), depth + 1);
+        }
+    }
+
+    private void collectSlot(Object dictObj, DictSlot slot) {
+        DictAccessor target = slot.getTarget();
+        DictAccessor path = slot.getPath();
+        if (null == target && null == path) {
+            return;
+        }
+        Object id = slot.getId().get(dictObj);
+        if (ObjectUtil.isEmpty(id)) {
+            return;
+        }
+        List<Object> ids = DictUtil.ids(id);
+        // 已有值的属性跳过，集合值不注入路径
+        boolean injectTarget = null != target && null == target.get(dictObj);
+        boolean injectPath = null == ids && null != path && null == path.get(dictObj);
+        if (!injectTarget && !injectPath) {
+            return;
+        }
+        if (injectTarget && !slot.isPlain()) {
+            plain = false;
+        }
+        Object parentId = slot.parentId(dictObj, dictProps);
+        pendings.add(null == ids ? new Pending(dictObj, slot, parentId, id, injectTarget, injectPath)
+                : new Pending(dictObj, slot, parentId, ids));
+        types.add(slot.getType());
+        if (injectPath) {
+            pathTypes.add(slot.getType());
+        }
+    }
+
+    /**
+     * 将字典值注入到记录的属性中
+     *
+     * @param dictMap 字典值, key: {@link DictUtil#dictKey(DictItemDto)}
+     * @author chad
+     * @since 1 by chad at 2023/9/13
+     */
+    public <I> void inject(@Nullable Map<String, DictItemDto<I>> dictMap) {
+        inject(null == dictMap ? DictIndex.EMPTY : DictIndex.of(dictMap.values()));
+    }
+
+    /**
+     * 将字典值注入到记录的属性中
+     *
+     * @param dictIndex 字典索引
+     * @author chad
+     * @since 2 by chad at 2023/9/14
+     */
+    public void inject(DictIndex dictIndex) {
+        int size = pendings.size();
+        if (isParallel(size)) {
+            // 字典索引只读，可在任务间共享
+            ForkJoinPool.commonPool().invoke(new InjectTask(dictIndex, 0, size));
+            return;
+        }
+        inject(dictIndex, 0, size);
+    }
+
+    /**
+     * 注入延迟获取的字典项，首次读取任一字典项时调用一次 loader；
+     * 集合值、路径及类型不兼容的属性仍直接注入，此时立即调用 loader
+     *
+     * @param loader 获取字典索引
+     * @author chad
+     * @since 3 by chad at 2023/10/1
+     */
+    public void injectLazy(Supplier<DictIndex> loader) {
+        LazyIndex lazyIndex = new LazyIndex(loader);
+        for (int i = 0, size = pendings.size(); i < size; i++) {
+            Pending pending = pendings.get(i);
+            DictSlot slot = pending.slot;
+            if (null == pending.ids && !pending.injectPath && slot.isLazy()) {
+                DictKeyDto key = new DictKeyDto(slot.getType(), pending.parentId, pending.id);
+                slot.getTarget().set(pending.owner, new LazyDictItemDto<>(key, lazyIndex));
+            } else {
+                inject(lazyIndex.index(), pending);
+            }
+        }
+    }
+
+    private void inject(DictIndex dictIndex, int from, int to) {
+        for (int i = from; i < to; i++) {
+            inject(dictIndex, pendings.get(i));
+        }
+    }
+
+    private void inject(DictIndex dictIndex, Pending pending) {
+        DictSlot slot = pending.slot;
+        if (null != pending.ids) {
+            injectAll(dictIndex, pending);
+            return;
+        }
+        List<DictItemDto<?>> path = null;
+        DictItemDto<?> dictItem;
+        if (pending.injectPath) {
+            path = dictIndex.path(slot.getType(), pending.parentId, pending.id);
+            dictItem = null == path ? null : path.get(path.size() - 1);
+        } else {
+            dictItem = dictIndex.get(slot.getType(), pending.parentId, pending.id);
+        }
+        if (null == dictItem) {
+            DictItemDto<?> placeholder = missing(dictIndex, pending, pending.id);
+            if (null != placeholder && pending.injectTarget) {
+                slot.getTarget().set(pending.owner, placeholder);
+            }
+            return;
+        }
+        if (pending.injectTarget) {
+            slot.getTarget().set(pending.owner, dictItem);
+        }
+        if (null != path) {
+            slot.getPath().set(pending.owner, slot.pathValue(path));
+        }
+    }
+
+    /**
+     * 注入集合值，按 id 的顺序
+     */
+    private void injectAll(DictIndex dictIndex, Pending pending) {
+        DictSlot slot = pending.slot;
+        List<DictItemDto<?>> dictItems = new ArrayList<>(pending.ids.size());
+        for (int i = 0, size = pending.ids.size(); i < size; i++) {
+            Object id = pending.ids.get(i);
+            DictItemDto<?> dictItem = dictIndex.get(slot.getType(), pending.parentId, id);
+            if (null == dictItem) {
+                dictItem = missing(dictIndex, pending, id);
+            }
+            if (null != dictItem) {
+                dictItems.add(dictItem);
+            }
+        }
+        slot.getTarget().set(pending.owner, dictItems);
+    }
+
+    /**
+     * 按 {@link DictAutoProperties.Missing#getPolicy()} 处理缺失的字典项，仅 FAIL 时创建异常
+     *
+     * @return 代替的字典项，为null时保留属性为空
+     * @throws NullPointerException FAIL
+     */
+    @Nullable
+    private DictItemDto<?> missing(DictIndex dictIndex, Pending pending, Object id) {
+        if (dictIndex.isIncomplete()) {
+            // 降级的字典值，保留属性为空
+            return null;
+        }
+        DictAutoProperties.Missing missing = dictProps.getMissing();
+        switch (missing.getPolicy()) {
+            case NULL:
+                return null;
+            case PLACEHOLDER:
+                // 属性为 DictItemDto 的子类时无法注入占位字典项，保留为空
+                return pending.slot.isPlain()
+                        ? placeholder(pending.slot.getType(), missing.getPlaceholderName()) : null;
+            case REPORT:
+                missingReport.add(pending.owner, pending.slot.getId().name(), pending.slot.getType(),
+                        pending.parentId, id);
+                return null;
+            default:
+                throw new NullPointerException(pending.owner.getClass().getName() + "."
+                        + pending.slot.getId().name() + " not found value, id:" + id + ", type:"
+                        + pending.slot.getType());
+        }
+    }
+
+    /**
+     * 各类型共用的占位字典项，不可修改
+     */
+    private static DictItemDto<?> placeholder(String type, String name) {
+        Map<String, DictItemDto<?>> byType = PLACEHOLDERS.get(name);
+        if (null == byType) {
+            PLACEHOLDERS.putIfAbsent(name, new ConcurrentHashMap<>(8));
+            byType = PLACEHOLDERS.get(name);
+        }
+        DictItemDto<?> placeholder = byType.get(type);
+        if (null == placeholder) {
+            byType.putIfAbsent(type, new PlaceholderDictItemDto(type, name));
+            placeholder = byType.get(type);
+        }
+        return placeholder;
+    }
+
+    /**
+     * @return 缺失的字典项，{@code dict-auto.missing.policy=REPORT} 时记录
+     */
+    public DictMissingReport missingReport() {
+        return missingReport;
+    }
+
+    /**
+     * @return true没有需要注入的字典属性
+     */
+    public boolean isEmpty() {
+        return pendings.isEmpty();
+    }
+
+    /**
+     * @return 待注入的字典类型
+     */
+    public String[] types() {
+        return types.toArray(new String[0]);
+    }
+
+    /**
+     * @return 需注入路径的字典类型，路径需要同类型的祖先字典项
+     */
+    public Set<String> pathTypes() {
+        return Collections.unmodifiableSet(pathTypes);
+    }
+
+    /**
+     * @return true所有待注入的属性均可注入 {@link DictItemDto}，可使用从快照文件读取的字典项
+     */
+    public boolean acceptsPlain() {
+        return plain;
+    }
+
+    /**
+     * @return 已遍历的对象数
+     */
+    public int objectCount() {
+        return objectCount;
+    }
+
+    /**
+     * @return 各字典类型待注入的属性数
+     */
+    public Map<String, Integer> slotCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>(types.size() * 2);
+        for (int i = 0, size = pendings.size(); i < size; i++) {
+            counts.merge(pendings.get(i).slot.getType(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * @return 待注入的字典项key，已去重
+     */
+    public Collection<DictKeyDto> keys() {
+        Set<DictKeyDto> keys = new LinkedHashSet<>(pendings.size() * 2);
+        for (int i = 0, size = pendings.size(); i < size; i++) {
+            Pending pending = pendings.get(i);
+            if (null == pending.ids) {
+                keys.add(new DictKeyDto(pending.slot.getType(), pending.parentId, pending.id));
+                continue;
+            }
+            for (Object id : pending.ids) {
+                keys.add(new DictKeyDto(pending.slot.getType(), pending.parentId, id));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return 待注入属性的DictId注解
+     */
+    public Set<DictId> dictIds() {
+        if (pendings.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<DictId> dictIdSet = new HashSet<>(4);
+        for (Pending pending : pendings) {
+            dictIdSet.add(pending.slot.getDictId());
+        }
+        return dictIdSet;
+    }
+
+    /**
+     * 并行遍历集合的 [from, to) 区间
+     */
+    private final class CollectTask extends RecursiveTask<DictCollector> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<?> list;
+        private final int depth;
+        private final int from;
+        private final int to;
+
+        private CollectTask(List<?> list, int depth, int from, int to) {
+            this.list = list;
+            this.depth = depth;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected DictCollector compute() {
+            if (to - from <= chunkSize()) {
+                DictCollector collector = new DictCollector(dictProps, visited);
+                for (int i = from; i < to; i++) {
+                    collector.collect(list.get(i), depth);
+                }
+                return collector;
+            }
+            int mid = (from + to) >>> 1;
+            CollectTask left = new CollectTask(list, depth, from, mid);
+            left.fork();
+            DictCollector right = new CollectTask(list, depth, mid, to).compute();
+            DictCollector collector = left.join();
+            collector.merge(right);
+            return collector;
+        }
+    }
+
+    /**
+     * 并行注入 [from, to) 区间的待注入属性
+     */
+    private final class InjectTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DictIndex dictIndex;
+        private final int from;
+        private final int to;
+
+        private InjectTask(DictIndex dictIndex, int from, int to) {
+            this.dictIndex = dictIndex;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize()) {
+                inject(dictIndex, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new InjectTask(dictIndex, from, mid), new InjectTask(dictIndex, mid, to));
+        }
+    }
+
+    /**
+     * 按引用比较的线程安全集合，并行遍历的各任务共用
+     */
+    private static final class ConcurrentIdentitySet extends AbstractSet<Object> {
+        private final Map<IdentityKey, Boolean> map = new ConcurrentHashMap<>();
+
+        private ConcurrentIdentitySet(Collection<Object> visited) {
+            for (Object o : visited) {
+                add(o);
+            }
+        }
+
+        @Override
+        public boolean add(Object o) {
+            return null == map.putIfAbsent(new IdentityKey(o), Boolean.TRUE);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return map.containsKey(new IdentityKey(o));
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            Iterator<IdentityKey> keys = map.keySet().iterator();
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return keys.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return keys.next().value;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+    }
+
+    /**
+     * 按引用比较的 key
+     */
+    private static final class IdentityKey {
+        private final Object value;
+
+        private IdentityKey(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+
+    /**
+     * 延迟获取的字典索引，所有 {@link LazyDictItemDto} 共用，仅获取一次
+     */
+    private static final class LazyIndex implements Function<DictKeyDto, DictItemDto<?>> {
+        @Nullable
+        private Supplier<DictIndex> loader;
+        @Nullable
+        private volatile DictIndex index;
+
+        private LazyIndex(Supplier<DictIndex> loader) {
+            this.loader = loader;
+        }
+
+        private DictIndex index() {
+            DictIndex current = index;
+            if (null != current) {
+                return current;
+            }
+            synchronized (this) {
+                if (null == index) {
+                    index = loader.get();
+                    // 释放 loader 引用的收集器
+                    loader = null;
+                }
+                return index;
+            }
+        }
+
+        @Override
+        @Nullable
+        public DictItemDto<?> apply(DictKeyDto key) {
+            return index().get(key.getType(), key.getParentId(), key.getId());
+        }
+    }
+
+    /**
+     * 待注入的字典属性：(owner, slot, parentId, id)，类型为 {@link DictSlot#getType()}；
+     * 分别记录字典项属性和路径属性是否需要注入
+     */
+    private static final class Pending {
+        private final Object owner;
+        private final DictSlot slot;
+        @Nullable
+        private final Object parentId;
+        private final Object id;
+        /**
+         * 集合值的各个 id，单个 id 时为null
+         */
+        @Nullable
+        private final List<Object> ids;
+        private final boolean injectTarget;
+        private final boolean injectPath;
+
+        private Pending(Object owner, DictSlot slot, @Nullable Object parentId, Object id,
+                        boolean injectTarget, boolean injectPath) {
+            this.owner = owner;
+            this.slot = slot;
+            this.parentId = parentId;
+            this.id = id;
+            this.ids = null;
+            this.injectTarget = injectTarget;
+            this.injectPath = injectPath;
+        }
+
+        private Pending(Object owner, DictSlot slot, @Nullable Object parentId, List<Object> ids) {
+            this.owner = owner;
+            this.slot = slot;
+            this.parentId = parentId;
+            this.id = ids;
+            this.ids = ids;
+            this.injectTarget = true;
+            this.injectPath = false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.chad2li.dictauto.base.engine;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已注入对象的标记，按引用比较，弱引用不影响对象回收
+ * <p>
+ * 标记时记录字典版本，版本变化后标记失效；用于跳过被 {@code @Cacheable} 等缓存并重复返回的响应，
+ * 标记后对象不应再被修改
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/4 10:00
+ */
+public final class DictInjectedMarks {
+    /**
+     * key: 已注入的对象，value: 注入时的字典版本
+     */
+    private final Map<Key, Long> marks = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /**
+     * @param root    响应对象
+     * @param version 当前字典版本
+     * @return true已在该版本注入
+     * @author chad
+     * @since 1 by chad at 2023/10/4
+     */
+    public boolean isMarked(Object root, long version) {
+        Long marked = marks.get(new Key(root, null));
+        return null != marked && marked == version;
+    }
+
+    /**
+     * 标记对象已注入
+     *
+     * @param root    响应对象
+     * @param version 注入时的字典版本
+     * @author chad
+     * @since 1 by chad at 2023/10/4
+     */
+    public void mark(Object root, long version) {
+        expunge();
+        marks.put(new Key(root, queue), version);
+    }
+
+    /**
+     * @return 未回收的标记数
+     */
+    public int size() {
+        expunge();
+        return marks.size();
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while (null != (reference = queue.poll())) {
+            marks.remove(reference);
+        }
+    }
+
+    /**
+     * 按引用比较的弱引用 key，回收后仅与自身相同
+     */
+    private static final class Key extends WeakReference<Object> {
+        private final int hash;
+
+        private Key(Object referent, @Nullable ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Object referent = get();
+            return null != referent && referent == ((Key) obj).get();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.chad2li.dictauto.base.engine;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次注入中缺失的字典项，{@code dict-auto.missing.policy=REPORT} 时记录
+ * <p>
+ * 记录时不拼接字符串，需要时由调用方格式化；并行注入时各任务共用，记录方法线程安全
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/5 10:00
+ */
+public final class DictMissingReport {
+    private final List<Item> items = new ArrayList<>();
+
+    synchronized void add(Object owner, String field, String type, @Nullable Object parentId, Object id) {
+        items.add(new Item(owner.getClass(), field, type, parentId, id));
+    }
+
+    /**
+     * @return true无缺失的字典项
+     */
+    public synchronized boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * @return 缺失的字典项，按注入顺序
+     */
+    public synchronized List<Item> getItems() {
+        return Collections.unmodifiableList(new ArrayList<>(items));
+    }
+
+    /**
+     * @return 各字典类型缺失的属性数
+     */
+    public synchronized Map<String, Integer> counts() {
+        Map<String, Integer> counts = new LinkedHashMap<>(4);
+        for (Item item : items) {
+            counts.merge(item.type, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 缺失的字典项：(属性所属的类, dict id 属性名, type, parentId, id)
+     */
+    public static final class Item {
+        private final Class<?> ownerType;
+        private final String field;
+        private final String type;
+        @Nullable
+        private final Object parentId;
+        private final Object id;
+
+        private Item(Class<?> ownerType, String field, String type, @Nullable Object parentId, Object id) {
+            this.ownerType = ownerType;
+            this.field = field;
+            this.type = type;
+            this.parentId = parentId;
+            this.id = id;
+        }
+
+        public Class<?> getOwnerType() {
+            return ownerType;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        @Nullable
+        public Object getParentId() {
+            return parentId;
+        }
+
+        public Object getId() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return ownerType.getName() + "." + field + ", type:" + type + ", parentId:" + parentId + ", id:" + id;
+        }
+    }
+}
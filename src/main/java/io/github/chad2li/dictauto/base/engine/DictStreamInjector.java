@@ -0,0 +1,122 @@
+package io.github.chad2li.dictauto.base.engine;
+
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 流式结果的字典注入：元素被消费时按块读取、获取字典值并注入，不需要先将结果全部加载到内存
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/21 10:00
+ */
+public class DictStreamInjector {
+
+    /**
+     * 包装 stream，元素按 {@code dict-auto.stream.chunk-size} 分块注入；返回的 stream 为串行，关闭时关闭原 stream
+     *
+     * @param stream    原 stream
+     * @param loader    根据已收集的字典属性获取字典索引
+     * @param reporter  每块注入后处理缺失的字典项，{@code dict-auto.missing.policy=REPORT} 时汇总记录
+     * @param dictProps 配置
+     * @return 注入字典值后的 stream
+     * @author chad
+     * @since 2 by chad at 2023/10/8
+     */
+    public static <T> Stream<T> wrap(Stream<T> stream, Function<DictCollector, DictIndex> loader,
+                                     Consumer<DictMissingReport> reporter, DictAutoProperties dictProps) {
+        Spliterator<T> source = stream.spliterator();
+        Iterator<T> iterator = wrap(Spliterators.iterator(source), loader, reporter, dictProps);
+        int characteristics = source.characteristics() & (Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+                .onClose(stream::close);
+    }
+
+    /**
+     * 包装 iterator，元素按 {@code dict-auto.stream.chunk-size} 分块注入
+     *
+     * @param iterator  原 iterator
+     * @param loader    根据已收集的字典属性获取字典索引
+     * @param reporter  每块注入后处理缺失的字典项，{@code dict-auto.missing.policy=REPORT} 时汇总记录
+     * @param dictProps 配置
+     * @return 注入字典值后的 iterator
+     * @author chad
+     * @since 2 by chad at 2023/10/8
+     */
+    public static <T> Iterator<T> wrap(Iterator<T> iterator, Function<DictCollector, DictIndex> loader,
+                                       Consumer<DictMissingReport> reporter, DictAutoProperties dictProps) {
+        return new ChunkIterator<>(iterator, loader, reporter, dictProps);
+    }
+
+    /**
+     * 每次读取一块元素，收集并注入后再逐个返回
+     */
+    private static final class ChunkIterator<T> implements Iterator<T> {
+        private final Iterator<T> source;
+        private final Function<DictCollector, DictIndex> loader;
+        private final Consumer<DictMissingReport> reporter;
+        private final DictAutoProperties dictProps;
+        private final int chunkSize;
+        private final List<T> chunk;
+        private int position;
+
+        private ChunkIterator(Iterator<T> source, Function<DictCollector, DictIndex> loader,
+                              Consumer<DictMissingReport> reporter, DictAutoProperties dictProps) {
+            this.source = source;
+            this.loader = loader;
+            this.reporter = reporter;
+            this.dictProps = dictProps;
+            this.chunkSize = Math.max(1, dictProps.getStream().getChunkSize());
+            this.chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < chunk.size()) {
+                return true;
+            }
+            if (!source.hasNext()) {
+                return false;
+            }
+            nextChunk();
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.get(position++);
+        }
+
+        private void nextChunk() {
+            chunk.clear();
+            position = 0;
+            while (chunk.size() < chunkSize && source.hasNext()) {
+                chunk.add(source.next());
+            }
+            DictCollector collector = new DictCollector(dictProps);
+            collector.collect(chunk);
+            if (!collector.isEmpty()) {
+                collector.inject(loader.apply(collector));
+                reporter.accept(collector.missingReport());
+            }
+        }
+    }
+
+    private DictStreamInjector() {
+        // do nothing
+    }
+}
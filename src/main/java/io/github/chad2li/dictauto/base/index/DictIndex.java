@@ -0,0 +1,171 @@
+package io.github.chad2li.dictauto.base.index;
+
+import cn.hutool.core.collection.CollUtil;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字典索引：type -> parentId -> id -> 字典项
+ * <p>
+ * 替代以 {@code DictUtil.dictKey} 拼接字符串为key的map，查询时不再拼接字符串；
+ * 构建后只读，可在多线程间共享
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/14 11:30
+ */
+public final class DictIndex {
+    public static final DictIndex EMPTY = new DictIndex(Collections.emptyMap());
+
+    private final Map<String, DictTypeIndex> types;
+    /**
+     * 字典值不完整（如加载超时后降级），缺失的字典项不注入
+     */
+    private final boolean incomplete;
+
+    private DictIndex(Map<String, DictTypeIndex> types) {
+        this(types, false);
+    }
+
+    private DictIndex(Map<String, DictTypeIndex> types, boolean incomplete) {
+        this.types = types;
+        this.incomplete = incomplete;
+    }
+
+    /**
+     * 构建字典索引
+     *
+     * @param dictList 字典项
+     * @return index
+     * @throws IllegalStateException 字典项重复
+     * @author chad
+     * @since 1 by chad at 2023/9/14
+     */
+    public static DictIndex of(@Nullable Collection<? extends DictItemDto<?>> dictList) {
+        if (CollUtil.isEmpty(dictList)) {
+            return EMPTY;
+        }
+        Map<String, List<DictItemDto<?>>> group = new HashMap<>(8);
+        for (DictItemDto<?> item : dictList) {
+            group.computeIfAbsent(typeKey(item.getType()), k -> new ArrayList<>()).add(item);
+        }
+        Map<String, DictTypeIndex> types = new HashMap<>(group.size() * 2);
+        for (Map.Entry<String, List<DictItemDto<?>>> entry : group.entrySet()) {
+            types.put(entry.getKey(), new DictTypeIndex(entry.getKey(), entry.getValue()));
+        }
+        return new DictIndex(types);
+    }
+
+    /**
+     * 由已构建的单类型索引组成字典索引，不重新构建
+     *
+     * @param typeIndexes 单类型索引
+     * @return index
+     * @author chad
+     * @since 2 by chad at 2023/9/15
+     */
+    public static DictIndex ofTypes(Collection<DictTypeIndex> typeIndexes) {
+        if (CollUtil.isEmpty(typeIndexes)) {
+            return EMPTY;
+        }
+        Map<String, DictTypeIndex> types = new HashMap<>(typeIndexes.size() * 2);
+        for (DictTypeIndex typeIndex : typeIndexes) {
+            types.put(typeIndex.getType(), typeIndex);
+        }
+        return new DictIndex(types);
+    }
+
+    /**
+     * 获取字典项
+     *
+     * @param type     dict type
+     * @param parentId dict parent id，可为null
+     * @param id       dict id
+     * @return 字典项，不存在时为null
+     */
+    @Nullable
+    public DictItemDto<?> get(String type, @Nullable Object parentId, Object id) {
+        DictTypeIndex typeIndex = types.get(typeKey(type));
+        return null == typeIndex ? null : typeIndex.get(parentId, id);
+    }
+
+    /**
+     * 获取字典项，id为 long 时不装箱
+     *
+     * @see #get(String, Object, Object)
+     */
+    @Nullable
+    public DictItemDto<?> getLong(String type, @Nullable Object parentId, long id) {
+        DictTypeIndex typeIndex = types.get(typeKey(type));
+        return null == typeIndex ? null : typeIndex.getLong(parentId, id);
+    }
+
+    /**
+     * 获取字典项，id为 int 时不装箱
+     *
+     * @see #get(String, Object, Object)
+     */
+    @Nullable
+    public DictItemDto<?> getInt(String type, @Nullable Object parentId, int id) {
+        return getLong(type, parentId, id);
+    }
+
+    /**
+     * 获取字典项及其祖先
+     *
+     * @param type     dict type
+     * @param parentId dict parent id，可为null
+     * @param id       dict id
+     * @return 从根到该字典项的路径，字典项不存在时为null
+     * @see DictTypeIndex#path(Object, Object)
+     */
+    @Nullable
+    public List<DictItemDto<?>> path(String type, @Nullable Object parentId, Object id) {
+        DictTypeIndex typeIndex = types.get(typeKey(type));
+        return null == typeIndex ? null : typeIndex.path(parentId, id);
+    }
+
+    /**
+     * @param type dict type
+     * @return 单个类型的索引，不存在时为null
+     */
+    @Nullable
+    public DictTypeIndex typeIndex(String type) {
+        return types.get(typeKey(type));
+    }
+
+    /**
+     * @return 所有类型
+     */
+    public Collection<String> types() {
+        return types.keySet();
+    }
+
+    /**
+     * @return 标记为不完整的索引，共享已构建的类型索引
+     * @author chad
+     * @since 2 by chad at 2023/9/27
+     */
+    public DictIndex incomplete() {
+        return incomplete ? this : new DictIndex(types, true);
+    }
+
+    /**
+     * @return true字典值不完整，缺失的字典项不注入
+     */
+    public boolean isIncomplete() {
+        return incomplete;
+    }
+
+    private static String typeKey(@Nullable String type) {
+        return null != type ? type.trim() : "";
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.chad2li.dictauto.base.index;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * 字典 id、parentId 的规范化规则
+ * <p>
+ * 与 {@code DictUtil.dictKey} 一致：按 {@code String.valueOf(value).trim()} 比较，
+ * 因此 {@code 1L}、{@code 1}、{@code "1"} 视为同一个 key。
+ * 整数及规范的整数字符串统一按 long 查找，查询时不产生新对象
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/14 10:40
+ */
+final class DictKeys {
+    private static final String LONG_MAX = String.valueOf(Long.MAX_VALUE);
+    private static final String LONG_MIN_ABS = String.valueOf(Long.MIN_VALUE).substring(1);
+
+    /**
+     * @return true为 long、int、short、byte
+     */
+    static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * @return 去掉前后空白的文本值，为 String 且无空白时返回原对象
+     */
+    static String text(Object value) {
+        String str = value instanceof String ? (String) value : String.valueOf(value);
+        return str.trim();
+    }
+
+    /**
+     * 判断字符串是否与某个 long 的 {@code String.valueOf} 完全一致
+     *
+     * @param str 已去掉空白的字符串
+     * @return true可按 long 查找
+     */
+    static boolean isCanonicalLong(String str) {
+        int len = str.length();
+        if (len == 0) {
+            return false;
+        }
+        int start = str.charAt(0) == '-' ? 1 : 0;
+        int digits = len - start;
+        if (digits == 0 || digits > LONG_MAX.length()) {
+            return false;
+        }
+        char first = str.charAt(start);
+        if (first == '0') {
+            // 仅 "0" 为规范写法，排除 "-0"、"01"
+            return len == 1;
+        }
+        for (int i = start; i < len; i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        if (digits < LONG_MAX.length()) {
+            return true;
+        }
+        String limit = start == 0 ? LONG_MAX : LONG_MIN_ABS;
+        for (int i = 0; i < digits; i++) {
+            char c = str.charAt(start + i);
+            char l = limit.charAt(i);
+            if (c != l) {
+                return c < l;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 构建索引时使用，将值规范为 {@link Long} 或 {@link String}
+     *
+     * @param value id or parentId
+     * @return null表示空值
+     */
+    @Nullable
+    static Object normalize(@Nullable Object value) {
+        if (null == value) {
+            return null;
+        }
+        if (isIntegral(value)) {
+            return ((Number) value).longValue();
+        }
+        String str = text(value);
+        if (str.isEmpty()) {
+            return null;
+        }
+        return isCanonicalLong(str) ? (Object) Long.parseLong(str) : str;
+    }
+
+    private DictKeys() {
+        // do nothing
+    }
+}
@@ -0,0 +1,341 @@
+package io.github.chad2li.dictauto.base.index;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 字典索引的二进制快照文件
+ * <p>
+ * 1. {@link #write(Path, Collection)} 写入临时文件后原子替换，不影响正在使用旧文件的映射<br/>
+ * 2. {@link #read(Path)} 以只读方式映射文件，查询直接读取映射的内存，命中的字典项才创建对象<br/>
+ * 仅保存 {@link DictItemDto} 的 id、parentId、type、name，子类的其他属性不保存，读取的字典项均为 {@link DictItemDto}；
+ * id、parentId 保留 Long、Integer、Short、Byte 类型及 null，其他类型按去掉空白的字符串保存
+ * </p>
+ * <pre>
+ * 文件：magic(int) version(int) typeCount(int) sectionOffset(int)*typeCount section*typeCount
+ * 类型：type(str) count(int) capacity(int) slot(int)*capacity idSlot(int)*capacity record*count
+ * 字典项：parentId(key) id(key) name(str)
+ * key：tag(byte) [long | str]，str：length(int, null为-1) utf8
+ * </pre>
+ * slot 按 (parentId, id) 查找字典项；idSlot 仅按 id 查找，用于查询父级，同一 id 重复时为负数；
+ * 字符串按 UTF-8 字节计算 hash，查询时无需编码为字节数组
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/28 10:00
+ */
+public final class DictSnapshotFile {
+    static final int MAGIC = 0x44494354;
+    static final int VERSION = 2;
+    /**
+     * key tag 低2位：规范化后的值类型
+     */
+    static final int KIND_NULL = 0;
+    static final int KIND_LONG = 1;
+    static final int KIND_STRING = 2;
+    /**
+     * key tag 高位：原始值类型
+     */
+    static final int ORIGIN_STRING = 0;
+    static final int ORIGIN_LONG = 1;
+    static final int ORIGIN_INTEGER = 2;
+    static final int ORIGIN_SHORT = 3;
+    static final int ORIGIN_BYTE = 4;
+
+    /**
+     * 写入快照文件
+     *
+     * @param file    快照文件
+     * @param indexes 各类型的索引
+     * @throws IOException 写入失败
+     * @author chad
+     * @since 1 by chad at 2023/9/28
+     */
+    public static void write(Path file, Collection<? extends DictTypeIndex> indexes) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            List<byte[]> sections = new ArrayList<>(indexes.size());
+            int offset = 12 + 4 * indexes.size();
+            try (OutputStream fos = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(indexes.size());
+                for (DictTypeIndex index : indexes) {
+                    byte[] section = section(index, offset);
+                    sections.add(section);
+                    out.writeInt(offset);
+                    offset = Math.addExact(offset, section.length);
+                }
+                for (byte[] section : sections) {
+                    out.write(section);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 以内存映射方式读取快照文件
+     *
+     * @param file 快照文件
+     * @return 各类型的索引，查询时读取映射的内存
+     * @throws IOException 读取失败或文件格式不正确
+     * @author chad
+     * @since 1 by chad at 2023/9/28
+     */
+    public static List<DictTypeIndex> read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Dict snapshot too large: " + size);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (buffer.limit() < 12 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Invalid dict snapshot: " + file);
+        }
+        int typeCount = buffer.getInt(8);
+        List<DictTypeIndex> indexes = new ArrayList<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            indexes.add(new MappedDictTypeIndex(buffer, buffer.getInt(12 + 4 * i)));
+        }
+        return indexes;
+    }
+
+    /**
+     * 构建单个类型的数据，字典项按开放寻址写入槽位
+     *
+     * @param offset 该类型在文件中的位置
+     */
+    private static byte[] section(DictTypeIndex index, int offset) throws IOException {
+        List<DictItemDto<?>> items = index.getItems();
+        int capacity = 8;
+        while (capacity < items.size() * 2) {
+            capacity <<= 1;
+        }
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(Math.max(32, items.size() * 32));
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        int[] recordOffsets = new int[items.size()];
+        int[] hashes = new int[items.size()];
+        // id -> 第一个字典项的序号，重复的 id 记录在 ambiguous 中
+        Map<Object, Integer> ids = new HashMap<>(items.size() * 2);
+        Set<Object> ambiguous = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            DictItemDto<?> item = items.get(i);
+            recordOffsets[i] = records.size();
+            Object parent = DictKeys.normalize(item.getParentId());
+            Object id = DictKeys.normalize(item.getId());
+            // 与 DictTypeIndex 一致，空id按空字符串查找；null 按 null 保存
+            hashes[i] = hash(parent, null == id ? "" : id);
+            if (null != id && null != ids.putIfAbsent(id, i)) {
+                ambiguous.add(id);
+            }
+            writeKey(records, item.getParentId(), parent);
+            writeKey(records, item.getId(), null == id && null != item.getId() ? "" : id);
+            writeString(records, item.getName());
+        }
+        records.flush();
+
+        byte[] type = index.getType().getBytes(StandardCharsets.UTF_8);
+        int headerLength = 4 + type.length + 8;
+        int recordStart = offset + headerLength + 8 * capacity;
+        int mask = capacity - 1;
+        int[] slots = new int[capacity];
+        for (int i = 0; i < items.size(); i++) {
+            put(slots, hashes[i] & mask, Math.addExact(recordStart, recordOffsets[i]));
+        }
+        int[] idSlots = new int[capacity];
+        for (Map.Entry<Object, Integer> entry : ids.entrySet()) {
+            int record = Math.addExact(recordStart, recordOffsets[entry.getValue()]);
+            put(idSlots, keyHash(entry.getKey()) & mask, ambiguous.contains(entry.getKey()) ? -record : record);
+        }
+
+        ByteArrayOutputStream sectionBytes = new ByteArrayOutputStream(headerLength + 8 * capacity + recordBytes.size());
+        DataOutputStream section = new DataOutputStream(sectionBytes);
+        section.writeInt(type.length);
+        section.write(type);
+        section.writeInt(items.size());
+        section.writeInt(capacity);
+        for (int slot : slots) {
+            section.writeInt(slot);
+        }
+        for (int slot : idSlots) {
+            section.writeInt(slot);
+        }
+        recordBytes.writeTo(section);
+        section.flush();
+        return sectionBytes.toByteArray();
+    }
+
+    /**
+     * 开放寻址写入槽位
+     */
+    private static void put(int[] slots, int slot, int value) {
+        int mask = slots.length - 1;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+    }
+
+    private static void writeKey(DataOutputStream out, Object origin, Object key) throws IOException {
+        int originType = ORIGIN_STRING;
+        if (origin instanceof Long) {
+            originType = ORIGIN_LONG;
+        } else if (origin instanceof Integer) {
+            originType = ORIGIN_INTEGER;
+        } else if (origin instanceof Short) {
+            originType = ORIGIN_SHORT;
+        } else if (origin instanceof Byte) {
+            originType = ORIGIN_BYTE;
+        }
+        if (null == key) {
+            out.writeByte(KIND_NULL);
+        } else if (key instanceof Long) {
+            out.writeByte(originType << 2 | KIND_LONG);
+            out.writeLong((Long) key);
+        } else {
+            out.writeByte(originType << 2 | KIND_STRING);
+            writeString(out, (String) key);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (null == str) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 规范化后的 (parentId, id) 的 hash，写入和查询一致
+     */
+    static int hash(Object parent, Object id) {
+        return 31 * keyHash(parent) + keyHash(id);
+    }
+
+    static int keyHash(Object key) {
+        if (null == key) {
+            return 0;
+        }
+        if (key instanceof Long) {
+            return longHash((Long) key);
+        }
+        return utf8Hash((String) key);
+    }
+
+    static int longHash(long key) {
+        // murmur3 fmix64
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * 字符串 UTF-8 编码的 hash，与 {@link #utf8Hash(ByteBuffer, int, int)} 一致
+     */
+    static int utf8Hash(String str) {
+        int h = 0;
+        for (int i = 0, n = str.length(); i < n; ) {
+            long code = utf8(str, i);
+            int length = (int) (code >>> 32);
+            for (int b = length - 1; b >= 0; b--) {
+                h = 31 * h + (byte) (code >>> (b << 3));
+            }
+            i += length == 4 ? 2 : 1;
+        }
+        return h;
+    }
+
+    /**
+     * 已编码的 UTF-8 字节的 hash
+     */
+    static int utf8Hash(ByteBuffer buffer, int start, int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + buffer.get(start + i);
+        }
+        return h;
+    }
+
+    /**
+     * 字符串中 index 处字符的 UTF-8 编码，与 {@link String#getBytes} 一致，未配对的代理字符编码为 '?'
+     *
+     * @return 高32位为字节数（4 时占用两个字符），低32位为依次排列的编码字节
+     */
+    static long utf8(String str, int index) {
+        char c = str.charAt(index);
+        int length;
+        int bytes;
+        if (c < 0x80) {
+            length = 1;
+            bytes = c;
+        } else if (c < 0x800) {
+            length = 2;
+            bytes = (0xC0 | c >> 6) << 8 | (0x80 | c & 0x3F);
+        } else if (!Character.isSurrogate(c)) {
+            length = 3;
+            bytes = (0xE0 | c >> 12) << 16 | (0x80 | c >> 6 & 0x3F) << 8 | (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && index + 1 < str.length()
+                && Character.isLowSurrogate(str.charAt(index + 1))) {
+            int cp = Character.toCodePoint(c, str.charAt(index + 1));
+            length = 4;
+            bytes = (0xF0 | cp >> 18) << 24 | (0x80 | cp >> 12 & 0x3F) << 16 | (0x80 | cp >> 6 & 0x3F) << 8
+                    | (0x80 | cp & 0x3F);
+        } else {
+            length = 1;
+            bytes = '?';
+        }
+        return (long) length << 32 | (bytes & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 读取字符串
+     */
+    static String readString(ByteBuffer buffer, int position) {
+        int length = buffer.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private DictSnapshotFile() {
+        // do nothing
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.chad2li.dictauto.base.index;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个字典类型的树：字典项 -> 父级字典项
+ * <p>
+ * 字典项的父级为同类型中 id 等于其 parentId 的字典项，不存在时为根；
+ * 构建时一次性计算每个字典项的父级，查询祖先路径为 O(深度)。
+ * 同一 id 在不同 parentId 下重复时无法确定父级，路径在该处截止
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/30 10:00
+ */
+final class DictTree {
+    /**
+     * id 重复的标记
+     */
+    private static final DictItemDto<?> AMBIGUOUS = new DictItemDto<>();
+
+    private final Map<DictItemDto<?>, DictItemDto<?>> parents;
+
+    DictTree(List<DictItemDto<?>> items) {
+        LongObjMap<DictItemDto<?>> longIds = new LongObjMap<>();
+        Map<String, DictItemDto<?>> strIds = new HashMap<>(items.size() * 2);
+        for (DictItemDto<?> item : items) {
+            Object id = DictKeys.normalize(item.getId());
+            if (id instanceof Long) {
+                if (null != longIds.put((Long) id, item)) {
+                    longIds.put((Long) id, AMBIGUOUS);
+                }
+            } else if (null != id && null != strIds.put((String) id, item)) {
+                strIds.put((String) id, AMBIGUOUS);
+            }
+        }
+        this.parents = new IdentityHashMap<>(items.size());
+        for (DictItemDto<?> item : items) {
+            Object parentId = DictKeys.normalize(item.getParentId());
+            DictItemDto<?> parent = null;
+            if (parentId instanceof Long) {
+                parent = longIds.get((Long) parentId);
+            } else if (null != parentId) {
+                parent = strIds.get((String) parentId);
+            }
+            if (null != parent && AMBIGUOUS != parent && item != parent) {
+                parents.put(item, parent);
+            }
+        }
+    }
+
+    /**
+     * 祖先路径
+     *
+     * @param item 字典项
+     * @return 从根到 item 的字典项，包含 item
+     */
+    List<DictItemDto<?>> path(DictItemDto<?> item) {
+        DictItemDto<?> parent = parents.get(item);
+        if (null == parent) {
+            return Collections.singletonList(item);
+        }
+        List<DictItemDto<?>> path = new ArrayList<>(4);
+        path.add(item);
+        // 数据有环时最多遍历所有字典项
+        for (int i = parents.size(); null != parent && i > 0; i--) {
+            path.add(parent);
+            parent = parents.get(parent);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
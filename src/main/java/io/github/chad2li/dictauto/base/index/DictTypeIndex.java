@@ -0,0 +1,191 @@
+package io.github.chad2li.dictauto.base.index;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.util.DictUtil;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个字典类型的索引：parentId -> id -> 字典项
+ * <p>
+ * 构建后只读，可在多线程间共享；同包中的子类可使用其他存储方式（如内存映射文件），不在堆中建立查找表
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/14 11:00
+ */
+public class DictTypeIndex {
+    private final String type;
+    private final List<DictItemDto<?>> items;
+    /**
+     * parentId 为空的字典项
+     */
+    private final IdTable noParent = new IdTable();
+    private final LongObjMap<IdTable> longParents = new LongObjMap<>();
+    private final Map<String, IdTable> strParents = new HashMap<>();
+    /**
+     * 首次查询路径时构建
+     */
+    @Nullable
+    private volatile DictTree tree;
+
+    /**
+     * @param type  字典类型
+     * @param items 该类型下的字典项
+     * @throws IllegalStateException 字典项重复
+     */
+    public DictTypeIndex(@Nullable String type, List<? extends DictItemDto<?>> items) {
+        this.type = null != type ? type.trim() : "";
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        for (DictItemDto<?> item : items) {
+            Object parentKey = DictKeys.normalize(item.getParentId());
+            IdTable table;
+            if (null == parentKey) {
+                table = noParent;
+            } else if (parentKey instanceof Long) {
+                long parent = (Long) parentKey;
+                table = longParents.get(parent);
+                if (null == table) {
+                    table = new IdTable();
+                    longParents.put(parent, table);
+                }
+            } else {
+                table = strParents.computeIfAbsent((String) parentKey, k -> new IdTable());
+            }
+            if (!table.put(item)) {
+                throw new IllegalStateException("Duplicate dict key: " + DictUtil.dictKey(item));
+            }
+        }
+    }
+
+    /**
+     * 供子类使用，不在堆中保存字典项
+     *
+     * @param type 字典类型
+     */
+    DictTypeIndex(String type) {
+        this.type = type;
+        this.items = Collections.emptyList();
+    }
+
+    /**
+     * 获取字典项
+     *
+     * @param parentId dict parent id，可为null
+     * @param id       dict id
+     * @return 字典项，不存在时为null
+     */
+    @Nullable
+    public DictItemDto<?> get(@Nullable Object parentId, Object id) {
+        IdTable table = table(parentId);
+        return null == table ? null : table.get(id);
+    }
+
+    /**
+     * 获取字典项，id为 long 时不装箱
+     *
+     * @param parentId dict parent id，可为null
+     * @param id       dict id
+     * @return 字典项，不存在时为null
+     */
+    @Nullable
+    public DictItemDto<?> getLong(@Nullable Object parentId, long id) {
+        IdTable table = table(parentId);
+        return null == table ? null : table.longIds.get(id);
+    }
+
+    /**
+     * 获取字典项及其祖先，如 省/市/区；首次查询时由所有字典项构建 {@link DictTree}，子类可按其存储方式覆盖
+     *
+     * @param parentId dict parent id，可为null
+     * @param id       dict id
+     * @return 从根到该字典项的路径，字典项不存在时为null
+     */
+    @Nullable
+    public List<DictItemDto<?>> path(@Nullable Object parentId, Object id) {
+        DictItemDto<?> item = get(parentId, id);
+        if (null == item) {
+            return null;
+        }
+        DictTree current = tree;
+        if (null == current) {
+            // 并发时可能重复构建，结果相同
+            current = new DictTree(getItems());
+            tree = current;
+        }
+        return current.path(item);
+    }
+
+    @Nullable
+    private IdTable table(@Nullable Object parentId) {
+        if (null == parentId) {
+            return noParent;
+        }
+        if (DictKeys.isIntegral(parentId)) {
+            return longParents.get(((Number) parentId).longValue());
+        }
+        String parent = DictKeys.text(parentId);
+        if (parent.isEmpty()) {
+            return noParent;
+        }
+        if (DictKeys.isCanonicalLong(parent)) {
+            return longParents.get(Long.parseLong(parent));
+        }
+        return strParents.get(parent);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return 该类型下的所有字典项
+     */
+    public List<DictItemDto<?>> getItems() {
+        return items;
+    }
+
+    /**
+     * @return 字典项数
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * 同一 parentId 下的 id -> 字典项
+     */
+    private static final class IdTable {
+        private final LongObjMap<DictItemDto<?>> longIds = new LongObjMap<>();
+        private final Map<String, DictItemDto<?>> strIds = new HashMap<>();
+
+        /**
+         * @return false表示id已存在
+         */
+        private boolean put(DictItemDto<?> item) {
+            Object id = DictKeys.normalize(item.getId());
+            if (id instanceof Long) {
+                return null == longIds.put((Long) id, item);
+            }
+            return null == strIds.put(null == id ? "" : (String) id, item);
+        }
+
+        @Nullable
+        private DictItemDto<?> get(Object id) {
+            if (DictKeys.isIntegral(id)) {
+                return longIds.get(((Number) id).longValue());
+            }
+            String str = DictKeys.text(id);
+            if (DictKeys.isCanonicalLong(str)) {
+                return longIds.get(Long.parseLong(str));
+            }
+            return strIds.get(str);
+        }
+    }
+}
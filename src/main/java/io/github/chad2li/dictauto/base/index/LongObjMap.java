@@ -0,0 +1,107 @@
+package io.github.chad2li.dictauto.base.index;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * long 为key的开放寻址map，查询时不装箱
+ * <p>
+ * 构建完成后只读，构建过程非线程安全
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/14 10:20
+ */
+final class LongObjMap<V> {
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    LongObjMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongObjMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < expectedSize * 4) {
+            capacity <<= 1;
+        }
+        init(capacity);
+    }
+
+    private void init(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int i = index(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return 旧值，无旧值时为null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        int i = index(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        // 负载因子 0.75
+        if (++size * 4 > keys.length * 3) {
+            rehash();
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        init(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    private int index(long key) {
+        // murmur3 fmix64
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
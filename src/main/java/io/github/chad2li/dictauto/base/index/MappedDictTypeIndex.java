@@ -0,0 +1,324 @@
+package io.github.chad2li.dictauto.base.index;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读取内存映射快照文件的单类型索引，格式见 {@link DictSnapshotFile}
+ * <p>
+ * 查询时按槽位直接比较映射内存中的 key，字符串按字符逐个编码比较，不创建字节数组；
+ * 命中后创建字典项并缓存，未命中的字典项不占用堆内存。查询路径时按 id 槽位逐级查找父级，仅创建路径上的字典项；
+ * 仅使用绝对位置读取，可在多线程间共享
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/28 10:30
+ */
+final class MappedDictTypeIndex extends DictTypeIndex {
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int mask;
+    /**
+     * 槽位的起始位置
+     */
+    private final int slotStart;
+    /**
+     * id 槽位的起始位置
+     */
+    private final int idSlotStart;
+    /**
+     * 已创建的字典项，key: 字典项在文件中的位置
+     */
+    private final Map<Integer, DictItemDto<?>> decoded = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile List<DictItemDto<?>> items;
+
+    MappedDictTypeIndex(ByteBuffer buffer, int offset) {
+        super(DictSnapshotFile.readString(buffer, offset));
+        this.buffer = buffer;
+        int position = offset + 4 + buffer.getInt(offset);
+        this.count = buffer.getInt(position);
+        this.mask = buffer.getInt(position + 4) - 1;
+        this.slotStart = position + 8;
+        this.idSlotStart = slotStart + 4 * (mask + 1);
+    }
+
+    @Override
+    @Nullable
+    public DictItemDto<?> get(@Nullable Object parentId, Object id) {
+        int record = find(parentId, id);
+        return 0 == record ? null : decode(record);
+    }
+
+    @Override
+    @Nullable
+    public DictItemDto<?> getLong(@Nullable Object parentId, long id) {
+        int record = findLong(parentKey(parentId), id);
+        return 0 == record ? null : decode(record);
+    }
+
+    /**
+     * 在映射的内存中逐级查找父级，与 {@link DictTree} 的规则一致，不读取整个类型
+     */
+    @Override
+    @Nullable
+    public List<DictItemDto<?>> path(@Nullable Object parentId, Object id) {
+        int record = find(parentId, id);
+        if (0 == record) {
+            return null;
+        }
+        DictItemDto<?> item = decode(record);
+        int parent = parentRecord(record);
+        if (0 == parent) {
+            return Collections.singletonList(item);
+        }
+        List<DictItemDto<?>> path = new ArrayList<>(4);
+        path.add(item);
+        // 数据有环时最多遍历所有字典项
+        for (int i = count; 0 != parent && i > 0; i--) {
+            path.add(decode(parent));
+            parent = parentRecord(parent);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return 字典项在文件中的位置，不存在时为0
+     */
+    private int find(@Nullable Object parentId, Object id) {
+        if (DictKeys.isIntegral(id)) {
+            return findLong(parentKey(parentId), ((Number) id).longValue());
+        }
+        String str = DictKeys.text(id);
+        if (DictKeys.isCanonicalLong(str)) {
+            return findLong(parentKey(parentId), Long.parseLong(str));
+        }
+        Object parent = parentKey(parentId);
+        int slot = DictSnapshotFile.hash(parent, str) & mask;
+        for (int record = slotValue(slot); record != 0; record = slotValue(slot = (slot + 1) & mask)) {
+            int position = matchParent(record, parent);
+            if (position >= 0 && (matchString(position, str)
+                    || (str.isEmpty() && (buffer.get(position) & 3) == DictSnapshotFile.KIND_NULL))) {
+                return record;
+            }
+        }
+        return 0;
+    }
+
+    private int findLong(@Nullable Object parent, long id) {
+        int slot = (31 * DictSnapshotFile.keyHash(parent) + DictSnapshotFile.longHash(id)) & mask;
+        for (int record = slotValue(slot); record != 0; record = slotValue(slot = (slot + 1) & mask)) {
+            int position = matchParent(record, parent);
+            if (position >= 0 && (buffer.get(position) & 3) == DictSnapshotFile.KIND_LONG
+                    && buffer.getLong(position + 1) == id) {
+                return record;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 同类型中 id 等于该字典项 parentId 的字典项
+     *
+     * @return 父级的位置，不存在、id 重复或为自身时为0
+     */
+    private int parentRecord(int record) {
+        if ((buffer.get(record) & 3) == DictSnapshotFile.KIND_NULL) {
+            return 0;
+        }
+        int slot = keyHash(record) & mask;
+        for (int value = idSlotValue(slot); value != 0; value = idSlotValue(slot = (slot + 1) & mask)) {
+            int candidate = Math.abs(value);
+            if (sameKey(record, skipKey(candidate))) {
+                return value < 0 || candidate == record ? 0 : candidate;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 所有字典项，首次调用时读取整个类型
+     */
+    @Override
+    public List<DictItemDto<?>> getItems() {
+        List<DictItemDto<?>> current = items;
+        if (null != current) {
+            return current;
+        }
+        List<DictItemDto<?>> list = new ArrayList<>(count);
+        int position = idSlotStart + 4 * (mask + 1);
+        for (int i = 0; i < count; i++) {
+            list.add(decode(position));
+            position = skipKey(skipKey(position));
+            position = skipString(position);
+        }
+        current = Collections.unmodifiableList(list);
+        items = current;
+        return current;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    private int slotValue(int slot) {
+        return buffer.getInt(slotStart + 4 * slot);
+    }
+
+    private int idSlotValue(int slot) {
+        return buffer.getInt(idSlotStart + 4 * slot);
+    }
+
+    /**
+     * 与 {@link DictTypeIndex} 一致，规范为 null、Long 或 String
+     */
+    @Nullable
+    private static Object parentKey(@Nullable Object parentId) {
+        return DictKeys.normalize(parentId);
+    }
+
+    /**
+     * @return parentId 相同时返回 id 的位置，否则为-1
+     */
+    private int matchParent(int record, @Nullable Object parent) {
+        int kind = buffer.get(record) & 3;
+        if (null == parent) {
+            return kind == DictSnapshotFile.KIND_NULL ? record + 1 : -1;
+        }
+        if (parent instanceof Long) {
+            return kind == DictSnapshotFile.KIND_LONG && buffer.getLong(record + 1) == (Long) parent
+                    ? record + 9 : -1;
+        }
+        return matchString(record, (String) parent) ? skipKey(record) : -1;
+    }
+
+    /**
+     * 逐个字符编码为 UTF-8 后比较
+     *
+     * @param position key 的位置
+     */
+    private boolean matchString(int position, String str) {
+        if ((buffer.get(position) & 3) != DictSnapshotFile.KIND_STRING) {
+            return false;
+        }
+        int current = position + 5;
+        int end = current + buffer.getInt(position + 1);
+        for (int i = 0, n = str.length(); i < n; ) {
+            long code = DictSnapshotFile.utf8(str, i);
+            int length = (int) (code >>> 32);
+            if (current + length > end) {
+                return false;
+            }
+            for (int b = length - 1; b >= 0; b--) {
+                if (buffer.get(current++) != (byte) (code >>> (b << 3))) {
+                    return false;
+                }
+            }
+            i += length == 4 ? 2 : 1;
+        }
+        return current == end;
+    }
+
+    /**
+     * 映射内存中 key 的 hash，与 {@link DictSnapshotFile#keyHash(Object)} 一致
+     */
+    private int keyHash(int position) {
+        int kind = buffer.get(position) & 3;
+        if (kind == DictSnapshotFile.KIND_NULL) {
+            return 0;
+        }
+        if (kind == DictSnapshotFile.KIND_LONG) {
+            return DictSnapshotFile.longHash(buffer.getLong(position + 1));
+        }
+        return DictSnapshotFile.utf8Hash(buffer, position + 5, buffer.getInt(position + 1));
+    }
+
+    /**
+     * 比较映射内存中的两个 key 的规范值
+     */
+    private boolean sameKey(int a, int b) {
+        int kind = buffer.get(a) & 3;
+        if (kind != (buffer.get(b) & 3) || kind == DictSnapshotFile.KIND_NULL) {
+            return false;
+        }
+        if (kind == DictSnapshotFile.KIND_LONG) {
+            return buffer.getLong(a + 1) == buffer.getLong(b + 1);
+        }
+        int length = buffer.getInt(a + 1);
+        if (length != buffer.getInt(b + 1)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(a + 5 + i) != buffer.get(b + 5 + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DictItemDto<?> decode(int record) {
+        DictItemDto<?> item = decoded.get(record);
+        if (null != item) {
+            return item;
+        }
+        int idPosition = skipKey(record);
+        int namePosition = skipKey(idPosition);
+        DictItemDto<Object> created = new DictItemDto<>(readKey(idPosition), readKey(record), getType(),
+                DictSnapshotFile.readString(buffer, namePosition));
+        DictItemDto<?> previous = decoded.putIfAbsent(record, created);
+        return null != previous ? previous : created;
+    }
+
+    /**
+     * 按原始类型读取 id、parentId
+     */
+    @Nullable
+    private Object readKey(int position) {
+        int tag = buffer.get(position);
+        int kind = tag & 3;
+        if (kind == DictSnapshotFile.KIND_NULL) {
+            return null;
+        }
+        if (kind == DictSnapshotFile.KIND_STRING) {
+            return DictSnapshotFile.readString(buffer, position + 1);
+        }
+        long value = buffer.getLong(position + 1);
+        switch (tag >>> 2) {
+            case DictSnapshotFile.ORIGIN_LONG:
+                return value;
+            case DictSnapshotFile.ORIGIN_INTEGER:
+                return (int) value;
+            case DictSnapshotFile.ORIGIN_SHORT:
+                return (short) value;
+            case DictSnapshotFile.ORIGIN_BYTE:
+                return (byte) value;
+            default:
+                return String.valueOf(value);
+        }
+    }
+
+    private int skipKey(int position) {
+        int kind = buffer.get(position) & 3;
+        if (kind == DictSnapshotFile.KIND_NULL) {
+            return position + 1;
+        }
+        if (kind == DictSnapshotFile.KIND_LONG) {
+            return position + 9;
+        }
+        return skipString(position + 1);
+    }
+
+    private int skipString(int position) {
+        return position + 4 + Math.max(0, buffer.getInt(position));
+    }
+}
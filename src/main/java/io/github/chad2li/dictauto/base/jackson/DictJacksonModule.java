@@ -0,0 +1,42 @@
+package io.github.chad2li.dictauto.base.jackson;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.CachingDictService;
+import io.github.chad2li.dictauto.base.service.IDictService;
+
+import java.util.function.Function;
+
+/**
+ * 序列化时注入字典值的 Jackson 模块
+ * <p>
+ * 在 Jackson 缓存的 bean 序列化器中，将 {@code DictId} 的注入属性替换为 {@link DictPropertyWriter}，
+ * 属性值为空时在写出该属性时获取字典值，不再单独遍历响应；同一次序列化中每个字典类型只获取一次字典索引。
+ * 开启 {@code dict-auto.jackson.enabled} 时 {@code DictResult} 方法不再遍历注入，由该模块写出字典值，
+ * 响应对象中的属性保持为空
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/2 10:00
+ */
+public class DictJacksonModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    public DictJacksonModule(IDictService<?, ?> dictService, DictAutoProperties dictProps) {
+        super(DictJacksonModule.class.getSimpleName());
+        setSerializerModifier(new DictSerializerModifier(dictProps, loader(dictService)));
+    }
+
+    /**
+     * 有本地缓存时使用缓存的类型索引，否则查询该类型的所有字典项
+     */
+    private static Function<String, DictIndex> loader(IDictService<?, ?> dictService) {
+        if (dictService instanceof CachingDictService) {
+            CachingDictService<?, ?> caching = (CachingDictService<?, ?>) dictService;
+            return caching::index;
+        }
+        return type -> DictIndex.of(dictService.list(type));
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.chad2li.dictauto.base.jackson;
+
+import cn.hutool.core.util.ObjectUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.plan.DictSlot;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.util.DictUtil;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 写出字典注入属性：属性值为空时根据同一对象的 dict id 获取字典值并写出，不修改对象
+ * <p>
+ * 与 {@code DictCollector} 的注入规则一致：集合值写出 {@code List<DictItemDto>}，路径属性写出祖先路径；
+ * 字典项不存在时按属性值为空写出，不抛出异常
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/2 10:20
+ */
+final class DictPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 1L;
+    /**
+     * 序列化上下文中已获取的字典索引，key: dict type
+     */
+    private static final Object INDEXES = DictPropertyWriter.class;
+
+    private final transient DictSlot slot;
+    /**
+     * true为路径属性
+     */
+    private final boolean path;
+    private final transient DictAutoProperties dictProps;
+    private final transient Function<String, DictIndex> loader;
+
+    DictPropertyWriter(BeanPropertyWriter base, DictSlot slot, boolean path, DictAutoProperties dictProps,
+                       Function<String, DictIndex> loader) {
+        super(base);
+        this.slot = slot;
+        this.path = path;
+        this.dictProps = dictProps;
+        this.loader = loader;
+    }
+
+    private DictPropertyWriter(DictPropertyWriter base, PropertyName name) {
+        super(base, name);
+        this.slot = base.slot;
+        this.path = base.path;
+        this.dictProps = base.dictProps;
+        this.loader = base.loader;
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(PropertyName newName) {
+        return new DictPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        if (null == get(bean)) {
+            Object value = resolve(bean, prov);
+            if (null != value) {
+                gen.writeFieldName(_name);
+                JsonSerializer<Object> serializer = prov.findValueSerializer(value.getClass(), this);
+                if (null == _typeSerializer) {
+                    serializer.serialize(value, gen, prov);
+                } else {
+                    serializer.serializeWithType(value, gen, prov, _typeSerializer);
+                }
+                return;
+            }
+        }
+        super.serializeAsField(bean, gen, prov);
+    }
+
+    /**
+     * @return 字典值，不存在时为null
+     */
+    @Nullable
+    private Object resolve(Object bean, SerializerProvider prov) {
+        Object id = slot.getId().get(bean);
+        if (ObjectUtil.isEmpty(id)) {
+            return null;
+        }
+        String type = slot.getType();
+        DictIndex dictIndex = index(prov, type);
+        Object parentId = slot.parentId(bean, dictProps);
+        List<Object> ids = DictUtil.ids(id);
+        if (null != ids) {
+            if (path) {
+                return null;
+            }
+            List<DictItemDto<?>> dictItems = new ArrayList<>(ids.size());
+            for (Object o : ids) {
+                DictItemDto<?> dictItem = dictIndex.get(type, parentId, o);
+                if (null != dictItem) {
+                    dictItems.add(dictItem);
+                }
+            }
+            return dictItems;
+        }
+        if (path) {
+            List<DictItemDto<?>> items = dictIndex.path(type, parentId, id);
+            return null == items ? null : slot.pathValue(items);
+        }
+        return dictIndex.get(type, parentId, id);
+    }
+
+    /**
+     * 同一次序列化中每个类型只获取一次
+     */
+    @SuppressWarnings("unchecked")
+    private DictIndex index(SerializerProvider prov, String type) {
+        Map<String, DictIndex> indexes = (Map<String, DictIndex>) prov.getAttribute(INDEXES);
+        if (null == indexes) {
+            indexes = new HashMap<>(4);
+            prov.setAttribute(INDEXES, indexes);
+        }
+        return indexes.computeIfAbsent(type, loader);
+    }
+}
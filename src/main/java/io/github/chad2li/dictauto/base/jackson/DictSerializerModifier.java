@@ -0,0 +1,65 @@
+package io.github.chad2li.dictauto.base.jackson;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.plan.DictClassPlan;
+import io.github.chad2li.dictauto.base.plan.DictSlot;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按 {@link DictClassPlan} 替换注入属性和路径属性的 writer，每个类仅在构建序列化器时处理一次
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/2 10:10
+ */
+final class DictSerializerModifier extends BeanSerializerModifier {
+    private static final long serialVersionUID = 1L;
+
+    private final DictAutoProperties dictProps;
+    private final Function<String, DictIndex> loader;
+
+    DictSerializerModifier(DictAutoProperties dictProps, Function<String, DictIndex> loader) {
+        this.dictProps = dictProps;
+        this.loader = loader;
+    }
+
+    @Override
+    public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                     List<BeanPropertyWriter> beanProperties) {
+        List<DictSlot> slots = DictClassPlan.of(beanDesc.getBeanClass(), dictProps).getSlots();
+        if (slots.isEmpty()) {
+            return beanProperties;
+        }
+        // json 属性名 -> 属性名，json 属性名可能被重命名
+        Map<String, String> names = new HashMap<>(beanProperties.size() * 2);
+        for (BeanPropertyDefinition property : beanDesc.findProperties()) {
+            names.put(property.getName(), property.getInternalName());
+        }
+        for (int i = 0; i < beanProperties.size(); i++) {
+            BeanPropertyWriter writer = beanProperties.get(i);
+            String name = names.getOrDefault(writer.getName(), writer.getName());
+            for (DictSlot slot : slots) {
+                if (null != slot.getTarget() && slot.getTargetName().equals(name)) {
+                    writer = new DictPropertyWriter(writer, slot, false, dictProps, loader);
+                    break;
+                }
+                if (null != slot.getPath() && slot.getPath().name().equals(name)) {
+                    writer = new DictPropertyWriter(writer, slot, true, dictProps, loader);
+                    break;
+                }
+            }
+            beanProperties.set(i, writer);
+        }
+        return beanProperties;
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.chad2li.dictauto.base.metrics;
+
+/**
+ * 字典注入指标
+ * <p>
+ * {@link #isEnabled()} 为false时，调用方不计时也不统计，无额外开销；
+ * 有 Micrometer 时使用 {@link MicrometerDictMetrics}，否则为 {@link #NOOP}
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/23 10:00
+ */
+public interface DictMetrics {
+    /**
+     * 不记录任何指标
+     */
+    DictMetrics NOOP = new DictMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void collect(String method, long nanos, int objects) {
+            // do nothing
+        }
+
+        @Override
+        public void fetch(String method, long nanos) {
+            // do nothing
+        }
+
+        @Override
+        public void inject(String method, long nanos) {
+            // do nothing
+        }
+
+        @Override
+        public void slots(String method, String type, int count) {
+            // do nothing
+        }
+
+        @Override
+        public void items(String type, int count) {
+            // do nothing
+        }
+
+        @Override
+        public void cache(String type, boolean hit) {
+            // do nothing
+        }
+    };
+
+    /**
+     * @return true记录指标
+     */
+    boolean isEnabled();
+
+    /**
+     * 遍历响应、收集待注入属性
+     *
+     * @param method  拦截的方法
+     * @param nanos   耗时
+     * @param objects 遍历的对象数
+     */
+    void collect(String method, long nanos, int objects);
+
+    /**
+     * 获取字典值，包括查询字典服务和构建索引
+     *
+     * @param method 拦截的方法
+     * @param nanos  耗时
+     */
+    void fetch(String method, long nanos);
+
+    /**
+     * 注入已收集的属性
+     *
+     * @param method 拦截的方法
+     * @param nanos  耗时
+     */
+    void inject(String method, long nanos);
+
+    /**
+     * 注入的字典属性数
+     *
+     * @param method 拦截的方法
+     * @param type   字典类型
+     * @param count  属性数
+     */
+    void slots(String method, String type, int count);
+
+    /**
+     * 获取的字典项数
+     *
+     * @param type  字典类型
+     * @param count 字典项数
+     */
+    void items(String type, int count);
+
+    /**
+     * 本地缓存命中
+     *
+     * @param type 字典类型
+     * @param hit  true命中，false未命中或已过期
+     */
+    void cache(String type, boolean hit);
+
+    /**
+     * 缺失的字典项数，{@code dict-auto.missing.policy=REPORT} 时记录
+     *
+     * @param method 拦截的方法
+     * @param type   字典类型
+     * @param count  缺失的属性数
+     */
+    default void missing(String method, String type, int count) {
+        // do nothing
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.chad2li.dictauto.base.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 Micrometer 发布字典注入指标
+ * <p>
+ * 1. 计时：dict.auto.collect、dict.auto.fetch、dict.auto.inject，tag: method<br/>
+ * 2. 计数：dict.auto.objects（tag: method）、dict.auto.slots（tag: method, type）、
+ * dict.auto.items（tag: type）、dict.auto.cache（tag: type, result=hit/miss）、
+ * dict.auto.missing（tag: method, type）<br/>
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/23 10:20
+ */
+public class MicrometerDictMetrics implements DictMetrics {
+    public static final String PREFIX = "dict.auto.";
+    private static final String TAG_METHOD = "method";
+    private static final String TAG_TYPE = "type";
+
+    private final MeterRegistry registry;
+
+    public MicrometerDictMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void collect(String method, long nanos, int objects) {
+        timer("collect", method).record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(PREFIX + "objects", TAG_METHOD, method).increment(objects);
+    }
+
+    @Override
+    public void fetch(String method, long nanos) {
+        timer("fetch", method).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void inject(String method, long nanos) {
+        timer("inject", method).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void slots(String method, String type, int count) {
+        registry.counter(PREFIX + "slots", TAG_METHOD, method, TAG_TYPE, type).increment(count);
+    }
+
+    @Override
+    public void items(String type, int count) {
+        registry.counter(PREFIX + "items", TAG_TYPE, type).increment(count);
+    }
+
+    @Override
+    public void cache(String type, boolean hit) {
+        Counter.builder(PREFIX + "cache")
+                .tag(TAG_TYPE, type)
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void missing(String method, String type, int count) {
+        registry.counter(PREFIX + "missing", TAG_METHOD, method, TAG_TYPE, type).increment(count);
+    }
+
+    private Timer timer(String phase, String method) {
+        return Timer.builder(PREFIX + phase)
+                .tag(TAG_METHOD, method)
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.chad2li.dictauto.base.plan;
+
+/**
+ * 属性读写器，由 {@link DictClassPlan} 一次性解析后缓存复用
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/12 10:05
+ */
+public interface DictAccessor {
+    /**
+     * @return 属性名称
+     */
+    String name();
+
+    /**
+     * 读取属性值
+     *
+     * @param bean 属性所属对象
+     * @return 属性值
+     */
+    Object get(Object bean);
+
+    /**
+     * @return true可写入，为 false 时 {@link #set(Object, Object)} 抛出 IllegalStateException
+     */
+    default boolean writable() {
+        return false;
+    }
+
+    /**
+     * 设置属性值，仅读取的属性不实现
+     *
+     * @param bean  属性所属对象
+     * @param value 属性值
+     * @throws IllegalStateException 属性不可写入
+     */
+    default void set(Object bean, Object value) {
+        throw new IllegalStateException(name() + " not writable");
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.chad2li.dictauto.base.plan;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.LazyDictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.util.DictReflectUtil;
+import io.github.chad2li.dictauto.base.util.DictUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类的字典注入计划：有哪些 {@link DictId} 属性、注入到哪个属性、需要继续深入解析哪些属性
+ * <p>
+ * 每个类仅反射解析一次，结果通过 {@link ClassValue} 缓存，解析后不再变化
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/12 10:30
+ */
+@Slf4j
+public final class DictClassPlan {
+    private static final ClassValue<Holder> PLANS = new ClassValue<Holder>() {
+        @Override
+        protected Holder computeValue(Class<?> type) {
+            return new Holder(type);
+        }
+    };
+    /**
+     * 未指定配置时使用默认配置
+     */
+    private static final DictAutoProperties DEFAULT_PROPS = new DictAutoProperties();
+
+    private final Class<?> type;
+    /**
+     * 计算注入属性名时使用的后缀，配置变更后需重新解析
+     */
+    private final String dictIdSuffix;
+    private final String dictItemSuffix;
+    /**
+     * 有 getter 的 {@link DictId} 属性
+     */
+    private final List<DictSlot> slots;
+    /**
+     * 需要继续深入解析的属性
+     */
+    private final List<DictAccessor> children;
+
+    /**
+     * 获取类的注入计划
+     *
+     * @param cls       类
+     * @param dictProps 配置，为null时使用默认配置
+     * @return plan
+     * @author chad
+     * @since 1 by chad at 2023/9/12
+     */
+    public static DictClassPlan of(Class<?> cls, @Nullable DictAutoProperties dictProps) {
+        return PLANS.get(cls).get(null != dictProps ? dictProps : DEFAULT_PROPS);
+    }
+
+    private DictClassPlan(Class<?> type, DictAutoProperties dictProps) {
+        this.type = type;
+        this.dictIdSuffix = dictProps.getDictIdSuffix();
+        this.dictItemSuffix = dictProps.getDictItemSuffix();
+        if (DictUtil.isBaseType(type) || DictItemDto.class.isAssignableFrom(type)
+                || !DictReachability.reachable(type)) {
+            log.debug("{} is base type or has not any dict field", type.getName());
+            this.slots = Collections.emptyList();
+            this.children = Collections.emptyList();
+            return;
+        }
+
+        // 编译期生成的注入器优先，未生成的属性仍使用反射
+        DictInjector<?> injector = DictInjectors.get(type);
+        Field[] fields = DictReflectUtil.getFieldsDirectlyHasGetter(type, true);
+        List<DictSlot> slotList = new ArrayList<>(4);
+        List<DictAccessor> childList = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            DictId dictId = field.getAnnotation(DictId.class);
+            if (null != dictId) {
+                slotList.add(slot(field, dictId, injector));
+            } else if (null == injector && isDescendable(field)) {
+                childList.add(DictReflectUtil.accessor(field, false));
+            } else {
+                log.debug("{}.{} skip descend", type.getName(), field.getName());
+            }
+        }
+        if (null != injector) {
+            for (String name : injector.nested()) {
+                DictAccessor child = injector.accessor(name);
+                Field field = DictReflectUtil.getField(type, name);
+                if (null != child && (null == field || isDescendable(field))) {
+                    childList.add(child);
+                }
+            }
+        }
+        this.slots = Collections.unmodifiableList(slotList);
+        this.children = Collections.unmodifiableList(childList);
+        log.debug("{} plan, slot size: {}, child size: {}, generated: {}", type.getName(), slots.size(),
+                children.size(), null != injector);
+    }
+
+    private DictSlot slot(Field field, DictId dictId, @Nullable DictInjector<?> injector) {
+        DictAccessor id = accessor(field, injector, false);
+        String targetName = getTargetName(dictId, field.getName());
+        Field targetField = DictReflectUtil.getField(type, targetName);
+        if (null == targetField) {
+            log.debug("{}.{} has not dict item name: {}", type.getName(), field.getName(), targetName);
+        }
+        DictAccessor target = null != targetField ? accessor(targetField, injector, true) : null;
+
+        String parent = CharSequenceUtil.isNotEmpty(dictId.parent()) ? dictId.parent() : null;
+        boolean hasParentField = CharSequenceUtil.isNotEmpty(dictId.parentField());
+        DictAccessor parentField = null;
+        if (null == parent && hasParentField) {
+            Field pf = DictReflectUtil.getField(type, dictId.parentField());
+            parentField = null != pf ? accessor(pf, injector, false) : null;
+        }
+        DictAccessor path = null;
+        boolean pathText = false;
+        if (CharSequenceUtil.isNotEmpty(dictId.pathField())) {
+            Field pathField = DictReflectUtil.getField(type, dictId.pathField().trim());
+            if (null == pathField) {
+                log.debug("{}.{} has not dict path name: {}", type.getName(), field.getName(), dictId.pathField());
+            } else {
+                path = accessor(pathField, injector, true);
+                pathText = CharSequence.class.isAssignableFrom(pathField.getType());
+            }
+        }
+        boolean lazy = null != targetField && targetField.getType().isAssignableFrom(LazyDictItemDto.class);
+        boolean plain = null != targetField && acceptsPlain(targetField);
+        return new DictSlot(dictId, id, targetName, target, parent, hasParentField, parentField, path, pathText,
+                lazy, plain);
+    }
+
+    /**
+     * 属性可否注入 {@link DictItemDto} 的实例，集合属性按声明的元素类型判断，未声明时视为可以
+     */
+    private static boolean acceptsPlain(Field targetField) {
+        if (!Collection.class.isAssignableFrom(targetField.getType())) {
+            return targetField.getType().isAssignableFrom(DictItemDto.class);
+        }
+        Type generic = targetField.getGenericType();
+        if (!(generic instanceof ParameterizedType)) {
+            return true;
+        }
+        Type element = ((ParameterizedType) generic).getActualTypeArguments()[0];
+        if (element instanceof WildcardType) {
+            element = ((WildcardType) element).getUpperBounds()[0];
+        }
+        if (element instanceof ParameterizedType) {
+            element = ((ParameterizedType) element).getRawType();
+        }
+        return !(element instanceof Class) || ((Class<?>) element).isAssignableFrom(DictItemDto.class);
+    }
+
+    /**
+     * @param writable 是否需要写入，生成的读写器不可写入时使用反射，反射读写器无法写入时在构建计划时抛出异常
+     */
+    private static DictAccessor accessor(Field field, @Nullable DictInjector<?> injector, boolean writable) {
+        DictAccessor accessor = null != injector ? injector.accessor(field.getName()) : null;
+        if (null != accessor && (!writable || accessor.writable())) {
+            return accessor;
+        }
+        return DictReflectUtil.accessor(field, writable);
+    }
+
+    /**
+     * 获取字典值注入的 fieldName
+     *
+     * @param dictId   dictId annotation
+     * @param dictName 字典fieldName
+     * @return 注入目标字段的名称，默认为 dictFieldName去年 DictId（如果有该后缀）再拼接上DictItem
+     */
+    private String getTargetName(DictId dictId, String dictName) {
+        String targetName = dictId.targetField();
+        if (CharSequenceUtil.isNotEmpty(targetName)) {
+            return targetName.trim();
+        }
+        // 自动拼接
+        int suffixIndex = dictName.indexOf(dictIdSuffix);
+        if (suffixIndex > 0) {
+            dictName = dictName.substring(0, suffixIndex);
+        }
+        return dictName + dictItemSuffix;
+    }
+
+    /**
+     * 根据属性声明类型（含泛型）判断是否需要深入解析，排除不可能有字典属性的子树
+     *
+     * @param field 属性
+     * @return true需要深入解析
+     * @see DictReachability#mayReach(java.lang.reflect.Type)
+     */
+    private static boolean isDescendable(Field field) {
+        return DictReachability.mayReach(field.getGenericType());
+    }
+
+    private boolean matches(DictAutoProperties dictProps) {
+        return Objects.equals(dictIdSuffix, dictProps.getDictIdSuffix())
+                && Objects.equals(dictItemSuffix, dictProps.getDictItemSuffix());
+    }
+
+    /**
+     * @return true表示该类无需解析
+     */
+    public boolean isEmpty() {
+        return slots.isEmpty() && children.isEmpty();
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public List<DictSlot> getSlots() {
+        return slots;
+    }
+
+    public List<DictAccessor> getChildren() {
+        return children;
+    }
+
+    /**
+     * 每个类一个，保存最近一次配置对应的计划
+     */
+    private static final class Holder {
+        private final Class<?> type;
+        /**
+         * 最近使用的计划，配置不变时直接返回
+         */
+        @Nullable
+        private volatile DictClassPlan plan;
+        /**
+         * 各配置的计划，key: [dictIdSuffix, dictItemSuffix]，多个配置交替使用时不重复解析
+         */
+        private final Map<List<String>, DictClassPlan> plans = new ConcurrentHashMap<>(2);
+
+        private Holder(Class<?> type) {
+            this.type = type;
+        }
+
+        private DictClassPlan get(DictAutoProperties dictProps) {
+            DictClassPlan current = plan;
+            if (null != current && current.matches(dictProps)) {
+                return current;
+            }
+            current = plans.computeIfAbsent(Arrays.asList(dictProps.getDictIdSuffix(), dictProps.getDictItemSuffix()),
+                    k -> new DictClassPlan(type, dictProps));
+            plan = current;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.chad2li.dictauto.base.plan;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * 编译期生成的字典注入器，直接调用 getter/setter，不使用反射
+ * <p>
+ * 由 {@code DictInjectorProcessor} 为有 {@code DictId} 属性的类生成，并注册到
+ * {@code META-INF/services}，{@link DictClassPlan} 优先使用注入器提供的读写器，
+ * 注入器未提供的属性（如运行时配置了不同的属性后缀）仍使用反射
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/18 10:00
+ */
+public interface DictInjector<T> {
+    /**
+     * @return 注入器处理的类
+     */
+    Class<T> type();
+
+    /**
+     * @return 需要深入解析的属性名
+     */
+    List<String> nested();
+
+    /**
+     * 获取属性读写器
+     *
+     * @param name 属性名
+     * @return accessor，未生成时为null
+     */
+    @Nullable
+    DictAccessor accessor(String name);
+}
@@ -0,0 +1,89 @@
+package io.github.chad2li.dictauto.base.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 通过 {@link ServiceLoader} 加载编译期生成的 {@link DictInjector}
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/18 10:20
+ */
+@Slf4j
+public final class DictInjectors {
+    private static volatile Map<Class<?>, DictInjector<?>> injectors;
+
+    /**
+     * 获取类的注入器
+     *
+     * @param cls 类
+     * @return injector，未生成时为null
+     * @author chad
+     * @since 1 by chad at 2023/9/18
+     */
+    @Nullable
+    public static DictInjector<?> get(Class<?> cls) {
+        Map<Class<?>, DictInjector<?>> current = injectors;
+        if (null == current) {
+            current = load();
+        }
+        return current.get(cls);
+    }
+
+    private static synchronized Map<Class<?>, DictInjector<?>> load() {
+        if (null != injectors) {
+            return injectors;
+        }
+        Map<Class<?>, DictInjector<?>> loaded = new HashMap<>(16);
+        load(loaded, DictInjector.class.getClassLoader());
+        ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        if (null != contextLoader && contextLoader != DictInjector.class.getClassLoader()) {
+            load(loaded, contextLoader);
+        }
+        log.debug("Dict injector size: {}", loaded.size());
+        injectors = Collections.unmodifiableMap(loaded);
+        return injectors;
+    }
+
+    private static void load(Map<Class<?>, DictInjector<?>> loaded, @Nullable ClassLoader classLoader) {
+        Iterator<? extends DictInjector<?>> it = loader(classLoader).iterator();
+        while (hasNext(it)) {
+            try {
+                DictInjector<?> injector = it.next();
+                loaded.putIfAbsent(injector.type(), injector);
+            } catch (ServiceConfigurationError | LinkageError ex) {
+                // 生成的注入器与当前类不一致时，使用反射
+                log.warn("Load dict injector error", ex);
+            }
+        }
+    }
+
+    /**
+     * ServiceLoader 仅支持原始类型，生成的注入器均实现 {@code DictInjector<该类>}
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static ServiceLoader<DictInjector<?>> loader(@Nullable ClassLoader classLoader) {
+        return (ServiceLoader) ServiceLoader.load(DictInjector.class, classLoader);
+    }
+
+    private static boolean hasNext(Iterator<?> it) {
+        try {
+            return it.hasNext();
+        } catch (ServiceConfigurationError ex) {
+            log.warn("Load dict injector error", ex);
+            return false;
+        }
+    }
+
+    private DictInjectors() {
+        // do nothing
+    }
+}
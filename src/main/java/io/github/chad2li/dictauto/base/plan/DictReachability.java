@@ -0,0 +1,203 @@
+package io.github.chad2li.dictauto.base.plan;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 静态分析类型能否到达 {@link DictId} 属性，用于跳过不可能有字典属性的子树
+ * <p>
+ * 1. 基本类型、枚举、{@link DictItemDto}、JDK 中的非集合类（如 BigDecimal、LocalDateTime、Date、UUID）不可到达<br/>
+ * 2. 数组、JDK 的 {@link Iterable}、{@link Map} 按元素类型（Map 仅 value）判断，元素类型未知时可到达<br/>
+ * 3. Object、接口、类型变量，以及非 final 的类（运行时可能为子类）保守认为可到达<br/>
+ * 4. final 类按其所有属性的声明类型递归判断<br/>
+ * 类的分析结果通过 {@link ClassValue} 缓存，每个类仅分析一次
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/24 10:00
+ */
+public final class DictReachability {
+    private static final ClassValue<Boolean> REACHABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return reaches(type, new HashSet<>());
+        }
+    };
+    private static final String[] JDK_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    /**
+     * 类的实例中是否可能有字典属性，包括其属性的子树
+     *
+     * @param cls 运行时类
+     * @return false表示该类的实例无需解析
+     * @author chad
+     * @since 1 by chad at 2023/9/24
+     */
+    public static boolean reachable(Class<?> cls) {
+        return REACHABLE.get(cls);
+    }
+
+    /**
+     * 声明为该类型的属性中是否可能有字典属性
+     *
+     * @param type 属性的声明类型，可带泛型
+     * @return false表示无需深入解析该属性
+     * @author chad
+     * @since 1 by chad at 2023/9/24
+     */
+    public static boolean mayReach(Type type) {
+        return mayReach(type, null);
+    }
+
+    /**
+     * 收集声明类型中可静态确定的字典类型：沿属性的声明类型和泛型参数查找 {@link DictId#type()}，
+     * 不包含运行时子类、Object 等属性中的字典类型
+     *
+     * @param type 声明类型，可带泛型
+     * @return 字典类型
+     * @author chad
+     * @since 2 by chad at 2023/9/25
+     */
+    public static Set<String> dictTypes(Type type) {
+        Set<String> types = new LinkedHashSet<>(4);
+        collectTypes(type, new HashSet<>(), types);
+        return types;
+    }
+
+    private static void collectTypes(Type type, Set<Class<?>> visited, Set<String> types) {
+        if (type instanceof GenericArrayType) {
+            collectTypes(((GenericArrayType) type).getGenericComponentType(), visited, types);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            collectTypes(parameterized.getRawType(), visited, types);
+            for (Type arg : parameterized.getActualTypeArguments()) {
+                collectTypes(arg, visited, types);
+            }
+        } else if (type instanceof Class) {
+            Class<?> cls = (Class<?>) type;
+            if (cls.isArray()) {
+                collectTypes(cls.getComponentType(), visited, types);
+                return;
+            }
+            if (cls.isPrimitive() || cls.isEnum() || cls.isInterface() || isJdk(cls)
+                    || DictItemDto.class.isAssignableFrom(cls) || !visited.add(cls)) {
+                return;
+            }
+            for (Class<?> c = cls; null != c && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
+                    }
+                    DictId dictId = field.getAnnotation(DictId.class);
+                    if (null != dictId) {
+                        types.add(dictId.type());
+                    } else {
+                        collectTypes(field.getGenericType(), visited, types);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param visiting 本次分析中已访问的 final 类，为null时使用缓存的结果
+     */
+    private static boolean mayReach(Type type, Set<Class<?>> visiting) {
+        if (type instanceof Class) {
+            return mayReachClass((Class<?>) type, visiting);
+        }
+        if (type instanceof GenericArrayType) {
+            return mayReach(((GenericArrayType) type).getGenericComponentType(), visiting);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] args = parameterized.getActualTypeArguments();
+            if (isJdk(raw) && Map.class.isAssignableFrom(raw) && args.length == 2) {
+                // map，仅解析 value
+                return mayReach(args[1], visiting);
+            }
+            if (isJdk(raw) && Iterable.class.isAssignableFrom(raw) && args.length == 1) {
+                return mayReach(args[0], visiting);
+            }
+            return mayReachClass(raw, visiting);
+        }
+        // 类型变量、通配符，运行时可能为任意类型
+        return true;
+    }
+
+    private static boolean mayReachClass(Class<?> cls, Set<Class<?>> visiting) {
+        if (cls.isPrimitive() || cls.isEnum() || DictItemDto.class.isAssignableFrom(cls)) {
+            return false;
+        }
+        if (cls.isArray()) {
+            return mayReachClass(cls.getComponentType(), visiting);
+        }
+        if (Iterable.class.isAssignableFrom(cls) || Map.class.isAssignableFrom(cls)) {
+            // 未声明元素类型
+            return true;
+        }
+        if (cls == Object.class || cls.isInterface()) {
+            return true;
+        }
+        if (isJdk(cls)) {
+            return false;
+        }
+        if (!Modifier.isFinal(cls.getModifiers())) {
+            // 运行时可能为有字典属性的子类
+            return true;
+        }
+        return null == visiting ? reachable(cls) : reaches(cls, visiting);
+    }
+
+    /**
+     * 深度优先遍历类的属性，任一路径到达字典属性即可到达；同一次分析中重复访问的类视为不可到达，由首次访问的路径判断
+     */
+    private static boolean reaches(Class<?> cls, Set<Class<?>> visiting) {
+        if (cls.isArray()) {
+            return mayReachClass(cls.getComponentType(), visiting);
+        }
+        if (cls.isPrimitive() || cls.isEnum() || DictItemDto.class.isAssignableFrom(cls) || isJdk(cls)) {
+            return false;
+        }
+        if (!visiting.add(cls)) {
+            return false;
+        }
+        for (Class<?> c = cls; null != c && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                if (field.isAnnotationPresent(DictId.class) || mayReach(field.getGenericType(), visiting)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJdk(Class<?> cls) {
+        String name = cls.getName();
+        for (String pkg : JDK_PACKAGES) {
+            if (name.startsWith(pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DictReachability() {
+        // do nothing
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.chad2li.dictauto.base.plan;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.LazyDictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * 类中一个 {@link DictId} 属性的注入信息，解析一次后不再变化
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/12 10:12
+ */
+public final class DictSlot {
+    private final DictId dictId;
+    /**
+     * dict id 属性
+     */
+    private final DictAccessor id;
+    /**
+     * 被注入字典值的属性名
+     */
+    private final String targetName;
+    /**
+     * 被注入字典值的属性，null表示类中无该属性
+     */
+    @Nullable
+    private final DictAccessor target;
+    /**
+     * {@link DictId#parent()}，null表示未配置
+     */
+    @Nullable
+    private final String parent;
+    /**
+     * 是否配置了 {@link DictId#parentField()}
+     */
+    private final boolean hasParentField;
+    /**
+     * {@link DictId#parentField()} 对应的属性，null表示未配置或类中无该属性
+     */
+    @Nullable
+    private final DictAccessor parentField;
+    /**
+     * {@link DictId#pathField()} 对应的属性，null表示未配置或类中无该属性
+     */
+    @Nullable
+    private final DictAccessor path;
+    /**
+     * 路径属性是否为 String
+     */
+    private final boolean pathText;
+    /**
+     * 被注入的属性可否为 {@link LazyDictItemDto}
+     */
+    private final boolean lazy;
+    /**
+     * 被注入的属性可否为 {@link DictItemDto}，如从快照文件读取的字典项；为 false 时属性为其子类
+     */
+    private final boolean plain;
+
+    DictSlot(DictId dictId, DictAccessor id, String targetName, @Nullable DictAccessor target,
+             @Nullable String parent, boolean hasParentField, @Nullable DictAccessor parentField,
+             @Nullable DictAccessor path, boolean pathText, boolean lazy, boolean plain) {
+        this.dictId = dictId;
+        this.id = id;
+        this.targetName = targetName;
+        this.target = target;
+        this.parent = parent;
+        this.hasParentField = hasParentField;
+        this.parentField = parentField;
+        this.path = path;
+        this.pathText = pathText;
+        this.lazy = lazy;
+        this.plain = plain;
+    }
+
+    /**
+     * 解析 parentId，与 {@code DictUtil.parseParentId} 规则一致，但不转为字符串，
+     * 由 {@code DictIndex} 统一规范化
+     *
+     * @param bean      dictId 所属的对象
+     * @param dictProps 配置
+     * @return parentId or null if not parent
+     */
+    @Nullable
+    public Object parentId(Object bean, DictAutoProperties dictProps) {
+        if (null != parent) {
+            // parent优先级高于parentField
+            return parent;
+        }
+        if (!hasParentField) {
+            // parent和parentField都无值，则返回配置值
+            return dictProps.getDefaultParentId();
+        }
+        return null == parentField ? null : parentField.get(bean);
+    }
+
+    /**
+     * 转为路径属性的值
+     *
+     * @param items 从根到字典项的路径
+     * @return String 属性为连接的 name，否则为 items
+     */
+    public Object pathValue(List<DictItemDto<?>> items) {
+        if (!pathText) {
+            return items;
+        }
+        StringJoiner joiner = new StringJoiner(dictId.pathSeparator());
+        for (DictItemDto<?> item : items) {
+            joiner.add(item.getName());
+        }
+        return joiner.toString();
+    }
+
+    public DictId getDictId() {
+        return dictId;
+    }
+
+    public String getType() {
+        return dictId.type();
+    }
+
+    public DictAccessor getId() {
+        return id;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    @Nullable
+    public DictAccessor getTarget() {
+        return target;
+    }
+
+    @Nullable
+    public DictAccessor getPath() {
+        return path;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public boolean isPlain() {
+        return plain;
+    }
+}
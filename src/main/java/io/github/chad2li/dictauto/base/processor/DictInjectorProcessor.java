@@ -0,0 +1,411 @@
+package io.github.chad2li.dictauto.base.processor;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.cst.DictCst;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.plan.DictInjector;
+import io.github.chad2li.dictauto.base.util.Log;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译期为有 {@link DictId} 属性的类生成 {@link DictInjector}，并注册到 {@code META-INF/services}
+ * <p>
+ * 本处理器不自动注册，需通过 {@code -processor} 或 maven-compiler-plugin 的 {@code annotationProcessors} 显式开启
+ * </p>
+ * <p>
+ * 生成规则与运行时反射一致：仅处理有 public 无参 {@code get, is, has} 方法的属性，
+ * 被注入属性需同时有 getter 和 setter，仅读取的属性不生成 {@code set}；lombok 的 {@code @Data, @Getter, @Setter, @Value} 视为已有对应方法。
+ * 无法生成的属性在运行时仍使用反射
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/18 11:00
+ */
+@SupportedAnnotationTypes("io.github.chad2li.dictauto.base.annotation.DictId")
+public class DictInjectorProcessor extends AbstractProcessor {
+    private static final String SUFFIX = "_DictInjector";
+    private static final String SERVICE_FILE = "META-INF/services/" + DictInjector.class.getName();
+    private static final Set<String> BASE_TYPES = new HashSet<>(Arrays.asList(
+            String.class.getName(), Integer.class.getName(), Long.class.getName(), Short.class.getName(),
+            Byte.class.getName(), Boolean.class.getName(), Double.class.getName(), Float.class.getName()));
+    private static final List<String> LOMBOK_GETTER = Arrays.asList("lombok.Data", "lombok.Getter", "lombok.Value");
+    private static final List<String> LOMBOK_SETTER = Arrays.asList("lombok.Data", "lombok.Setter");
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    /**
+     * 已生成的注入器全名
+     */
+    private final Set<String> generated = new LinkedHashSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        Log.init(processingEnv.getMessager());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        Set<TypeElement> typeSet = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(DictId.class)) {
+            if (element.getKind() == ElementKind.FIELD
+                    && element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                typeSet.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (TypeElement type : typeSet) {
+            try {
+                generate(type);
+            } catch (Exception ex) {
+                // 不影响编译，运行时使用反射
+                Log.write("Generate injector error: " + type.getQualifiedName(), ex);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        if (!isAccessible(type)) {
+            Log.write("Skip private class: " + type.getQualifiedName());
+            return;
+        }
+        Map<String, VariableElement> fields = fields(type);
+        // 注入目标、上级和路径属性，需要写入，不深入解析
+        Set<String> targets = new LinkedHashSet<>();
+        for (VariableElement field : fields.values()) {
+            DictId dictId = field.getAnnotation(DictId.class);
+            if (null == dictId) {
+                continue;
+            }
+            targets.add(targetName(dictId, field.getSimpleName().toString()));
+            String parentField = dictId.parentField().trim();
+            if (dictId.parent().isEmpty() && !parentField.isEmpty()) {
+                targets.add(parentField);
+            }
+            if (!dictId.pathField().trim().isEmpty()) {
+                targets.add(dictId.pathField().trim());
+            }
+        }
+        // 属性名 -> {getter, setter}，setter可为null
+        Map<String, String[]> accessors = new LinkedHashMap<>();
+        Set<String> nested = new LinkedHashSet<>();
+        for (VariableElement field : fields.values()) {
+            String name = field.getSimpleName().toString();
+            String getter = getter(type, field);
+            if (null == getter) {
+                continue;
+            }
+            if (targets.contains(name)) {
+                accessors.put(name, new String[]{getter, setter(type, field)});
+            } else if (null != field.getAnnotation(DictId.class)) {
+                accessors.put(name, new String[]{getter, null});
+            } else if (isDescendable(field.asType())) {
+                nested.add(name);
+                accessors.put(name, new String[]{getter, null});
+            }
+        }
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String typeName = sourceName(type);
+        String injectorName = typeName.replace('.', '_') + SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? injectorName : packageName + "." + injectorName;
+        StringBuilder sb = new StringBuilder(1024);
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import io.github.chad2li.dictauto.base.plan.DictAccessor;\n")
+                .append("import io.github.chad2li.dictauto.base.plan.DictInjector;\n\n")
+                .append("import java.util.Arrays;\n")
+                .append("import java.util.Collections;\n")
+                .append("import java.util.HashMap;\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n\n")
+                .append("/**\n * Generated by {@code ").append(getClass().getName())
+                .append("}, do not edit\n */\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(injectorName)
+                .append(" implements DictInjector<").append(typeName).append("> {\n")
+                .append("    private static final List<String> NESTED = Collections.unmodifiableList(Arrays.asList(");
+        int i = 0;
+        for (String name : nested) {
+            sb.append(i++ > 0 ? ", " : "").append('"').append(name).append('"');
+        }
+        sb.append("));\n")
+                .append("    private static final Map<String, DictAccessor> ACCESSORS = new HashMap<>();\n\n")
+                .append("    static {\n");
+        for (Map.Entry<String, String[]> entry : accessors.entrySet()) {
+            appendAccessor(sb, typeName, fields.get(entry.getKey()), entry.getValue()[0], entry.getValue()[1]);
+        }
+        sb.append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Class<").append(typeName).append("> type() {\n")
+                .append("        return ").append(typeName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public List<String> nested() {\n")
+                .append("        return NESTED;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public DictAccessor accessor(String name) {\n")
+                .append("        return ACCESSORS.get(name);\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try (Writer writer = filer.createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(sb.toString());
+        }
+        generated.add(qualifiedName);
+        Log.write("Generate injector: " + qualifiedName);
+    }
+
+    private void appendAccessor(StringBuilder sb, String typeName, VariableElement field,
+                                String getter, String setter) {
+        String name = field.getSimpleName().toString();
+        sb.append("        ACCESSORS.put(\"").append(name).append("\", new DictAccessor() {\n")
+                .append("            @Override\n")
+                .append("            public String name() {\n")
+                .append("                return \"").append(name).append("\";\n")
+                .append("            }\n\n")
+                .append("            @Override\n")
+                .append("            public Object get(Object bean) {\n")
+                .append("                return ((").append(typeName).append(") bean).").append(getter).append("();\n")
+                .append("            }\n");
+        if (null != setter) {
+            // 仅读取的属性使用 DictAccessor#writable、DictAccessor#set 的默认实现
+            sb.append("\n")
+                    .append("            @Override\n")
+                    .append("            public boolean writable() {\n")
+                    .append("                return true;\n")
+                    .append("            }\n\n")
+                    .append("            @Override\n")
+                    .append("            public void set(Object bean, Object value) {\n")
+                    .append("                ((").append(typeName).append(") bean).").append(setter).append("((")
+                    .append(types.erasure(field.asType())).append(") value);\n")
+                    .append("            }\n");
+        }
+        sb.append("        });\n");
+    }
+
+    /**
+     * 获取类及父类的所有非静态属性，子类属性优先
+     */
+    private Map<String, VariableElement> fields(TypeElement type) {
+        Map<String, VariableElement> fields = new LinkedHashMap<>();
+        for (TypeElement t = type; null != t; t = superclass(t)) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    fields.putIfAbsent(field.getSimpleName().toString(), field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superType = (TypeElement) ((DeclaredType) superclass).asElement();
+        return superType.getQualifiedName().contentEquals(Object.class.getName()) ? null : superType;
+    }
+
+    /**
+     * @return getter 方法名，没有时为null
+     */
+    private String getter(TypeElement type, VariableElement field) {
+        String upper = upperFirst(field.getSimpleName().toString());
+        for (String prefix : new String[]{"get", "is", "has"}) {
+            if (hasMethod(type, prefix + upper, 0)) {
+                return prefix + upper;
+            }
+        }
+        if (hasLombok(field, LOMBOK_GETTER)) {
+            return (field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get") + upper;
+        }
+        return null;
+    }
+
+    /**
+     * @return setter 方法名，没有时为null
+     */
+    private String setter(TypeElement type, VariableElement field) {
+        String name = "set" + upperFirst(field.getSimpleName().toString());
+        if (hasMethod(type, name, 1) || hasLombok(field, LOMBOK_SETTER)) {
+            return name;
+        }
+        return null;
+    }
+
+    private boolean hasMethod(TypeElement type, String name, int paramSize) {
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getParameters().size() == paramSize
+                    && method.getModifiers().contains(Modifier.PUBLIC)
+                    && !method.getModifiers().contains(Modifier.STATIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasLombok(VariableElement field, List<String> annotationNames) {
+        return hasAnnotation(field, annotationNames) || hasAnnotation(field.getEnclosingElement(), annotationNames);
+    }
+
+    private static boolean hasAnnotation(Element element, List<String> annotationNames) {
+        return element.getAnnotationMirrors().stream().anyMatch(it -> annotationNames.contains(
+                ((TypeElement) it.getAnnotationType().asElement()).getQualifiedName().toString()));
+    }
+
+    /**
+     * 与运行时规则一致：排除基本类型、枚举、字典值及 final 的基础类型
+     */
+    private boolean isDescendable(TypeMirror fieldType) {
+        if (fieldType.getKind().isPrimitive()) {
+            return false;
+        }
+        if (fieldType.getKind() == TypeKind.ARRAY) {
+            return !((ArrayType) fieldType).getComponentType().getKind().isPrimitive();
+        }
+        if (fieldType.getKind() != TypeKind.DECLARED) {
+            // 泛型变量等，运行时可能为任意对象
+            return true;
+        }
+        TypeElement element = (TypeElement) types.asElement(fieldType);
+        if (element.getKind() == ElementKind.ENUM) {
+            return false;
+        }
+        TypeElement dictItem = elements.getTypeElement(DictItemDto.class.getCanonicalName());
+        if (null != dictItem && types.isAssignable(types.erasure(fieldType), types.erasure(dictItem.asType()))) {
+            return false;
+        }
+        return !BASE_TYPES.contains(element.getQualifiedName().toString());
+    }
+
+    /**
+     * 与运行时 {@code DictClassPlan} 默认配置一致
+     */
+    private static String targetName(DictId dictId, String dictName) {
+        String targetName = dictId.targetField();
+        if (CharSequenceUtil.isNotEmpty(targetName)) {
+            return targetName.trim();
+        }
+        int suffixIndex = dictName.indexOf(DictCst.FIELD_DICT_ID_SUFFIX);
+        if (suffixIndex > 0) {
+            dictName = dictName.substring(0, suffixIndex);
+        }
+        return dictName + DictCst.FIELD_DICT_ITEM_SUFFIX;
+    }
+
+    private static String upperFirst(String name) {
+        return name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+
+    /**
+     * 类及所有外部类都不能为 private
+     */
+    private static boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)
+                    || ((TypeElement) e).getNestingKind() == NestingKind.LOCAL
+                    || ((TypeElement) e).getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 源码中引用的名称，如 {@code Outer.Inner}
+     */
+    private static String sourceName(TypeElement type) {
+        StringBuilder sb = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            sb.insert(0, e.getSimpleName() + ".");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 写入 {@code META-INF/services}，合并已有的注册
+     */
+    private void writeServiceFile() {
+        if (generated.isEmpty()) {
+            return;
+        }
+        Set<String> services = new LinkedHashSet<>();
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while (null != (line = reader.readLine())) {
+                    if (!line.trim().isEmpty()) {
+                        services.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // 首次编译，无已有文件
+        }
+        services.addAll(generated);
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE).openWriter()) {
+            for (String service : services) {
+                writer.write(service);
+                writer.write("\n");
+            }
+        } catch (IOException ex) {
+            Log.write("Write " + SERVICE_FILE + " error", ex);
+        }
+    }
+}
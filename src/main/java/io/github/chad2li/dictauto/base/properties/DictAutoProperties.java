@@ -3,8 +3,13 @@ package io.github.chad2li.dictauto.base.properties;
 import cn.hutool.core.text.CharSequenceUtil;
 import io.github.chad2li.dictauto.base.cst.DictCst;
 import lombok.Getter;
+import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 配置
  *
@@ -29,6 +34,59 @@ public class DictAutoProperties {
      * genderDictId 的字典值名称则为 genderDictItem
      */
     private String dictItemSuffix;
+    /**
+     * 最大解析深度，根对象为第0层，超过时不再深入解析；集合、Map 不计入深度
+     */
+    @Setter
+    private int maxDepth = DictCst.DEFAULT_MAX_DEPTH;
+    /**
+     * 本地字典缓存
+     */
+    private final Cache cache = new Cache();
+    /**
+     * 字典项共用
+     */
+    private final Intern intern = new Intern();
+    /**
+     * 合并并发的字典加载
+     */
+    private final Coalesce coalesce = new Coalesce();
+    /**
+     * 异步加载字典值
+     */
+    private final Async async = new Async();
+    /**
+     * 延迟获取字典值
+     */
+    private final Lazy lazy = new Lazy();
+    /**
+     * 序列化时注入字典值
+     */
+    private final Jackson jackson = new Jackson();
+    /**
+     * 启动预热
+     */
+    private final Warmup warmup = new Warmup();
+    /**
+     * 跳过已注入的响应
+     */
+    private final Idempotent idempotent = new Idempotent();
+    /**
+     * 字典项缺失时的处理
+     */
+    private final Missing missing = new Missing();
+    /**
+     * 大集合并行注入
+     */
+    private final Parallel parallel = new Parallel();
+    /**
+     * {@code Stream}、{@code Iterator} 响应的分块注入
+     */
+    private final Stream stream = new Stream();
+    /**
+     * 注入指标
+     */
+    private final Metrics metrics = new Metrics();
 
     public void setDefaultParentId(String defaultParentId) {
         if (CharSequenceUtil.isEmpty(defaultParentId)) {
@@ -56,4 +114,247 @@ public class DictAutoProperties {
         this.dictIdSuffix = DictCst.FIELD_DICT_ID_SUFFIX;
         this.dictItemSuffix = DictCst.FIELD_DICT_ITEM_SUFFIX;
     }
+
+    /**
+     * 本地字典缓存配置，开启后按类型缓存字典快照，过期前后台刷新，刷新期间继续使用旧快照
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+        /**
+         * 是否开启本地缓存
+         */
+        private boolean enabled = false;
+        /**
+         * 快照有效期，过期且无刷新任务时同步重新加载
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+        /**
+         * 距过期多久开始后台刷新
+         */
+        private Duration refreshAhead = Duration.ofMinutes(2);
+        /**
+         * 快照文件路径，为空时不使用；加载后写入所有快照，启动时以内存映射方式读取，
+         * 在重新加载完成前直接查询文件，仅保存字典项的 id、parentId、type、name
+         */
+        private String snapshotFile;
+    }
+
+    /**
+     * 字典项共用配置，开启后每次加载的字典项放入弱引用常量池，相同的字典项及其 type、name 只保留一份；
+     * 入池的字典项为多个响应共享，不可修改
+     */
+    @Getter
+    @Setter
+    public static class Intern {
+        /**
+         * 是否开启字典项共用
+         */
+        private boolean enabled = false;
+    }
+
+    /**
+     * 合并加载配置，开启后同一类型的并发加载共享一次 {@code IDictService.list} 调用，
+     * 开启本地缓存时作用于缓存的同步加载
+     */
+    @Getter
+    @Setter
+    public static class Coalesce {
+        /**
+         * 是否开启合并加载
+         */
+        private boolean enabled = false;
+        /**
+         * 合并窗口，发起加载前等待该时长，期间请求的其他类型合并为一次调用；为0时仅合并同时进行的相同类型
+         */
+        private Duration window = Duration.ZERO;
+    }
+
+    /**
+     * 异步加载配置，开启后在独立线程池中获取字典值，超时或失败时按 {@code fallback} 降级，不阻塞请求
+     */
+    @Getter
+    @Setter
+    public static class Async {
+        /**
+         * 是否开启异步加载
+         */
+        private boolean enabled = false;
+        /**
+         * 每次获取字典值的超时时间，也是本地缓存同步加载时等待后台预取的最长时间
+         */
+        private Duration timeout = Duration.ofMillis(500);
+        /**
+         * 超时或失败时的降级方式
+         */
+        private Fallback fallback = Fallback.STALE;
+        /**
+         * JDK 21 及以上是否使用虚拟线程
+         */
+        private boolean virtualThreads = true;
+        /**
+         * 不使用虚拟线程时的线程数
+         */
+        private int poolSize = 8;
+
+        /**
+         * 降级方式
+         */
+        public enum Fallback {
+            /**
+             * 使用本地缓存中最近一次的快照（含已过期的），未开启缓存或无快照的属性保留为空
+             */
+            STALE,
+            /**
+             * 属性保留为空
+             */
+            EMPTY
+        }
+    }
+
+    /**
+     * 延迟注入配置，开启后类型为 {@code DictItemDto} 的属性注入 {@code LazyDictItemDto}，
+     * 首次读取（如序列化）时才获取字典值，未被读取的字典项不查询；
+     * 读取时注入已结束，字典项不存在时 name 为null，不按 {@link Missing} 处理。
+     * 集合值、路径属性和流式响应仍直接注入
+     */
+    @Getter
+    @Setter
+    public static class Lazy {
+        /**
+         * 是否开启延迟注入
+         */
+        private boolean enabled = false;
+    }
+
+    /**
+     * Jackson 序列化注入配置，开启后 {@code DictResult} 方法不再遍历注入，
+     * 由 {@code DictJacksonModule} 在序列化时写出为空的注入属性，响应对象不被修改；流式响应仍直接注入
+     */
+    @Getter
+    @Setter
+    public static class Jackson {
+        /**
+         * 是否在序列化时注入
+         */
+        private boolean enabled = false;
+    }
+
+    /**
+     * 启动预热配置，开启后在 Web 服务启动前扫描包中的字典类和 {@code DictResult} 方法，
+     * 计算注入计划并加载其中的字典类型
+     */
+    @Getter
+    @Setter
+    public static class Warmup {
+        /**
+         * 是否开启启动预热
+         */
+        private boolean enabled = false;
+        /**
+         * 扫描的包，为空时使用 Spring Boot 自动配置包（启动类所在的包）
+         */
+        private List<String> packages = new ArrayList<>();
+    }
+
+    /**
+     * 重复注入配置，开启后按引用记录已完整注入的响应，同一字典版本下再次返回时（如 {@code @Cacheable} 命中）不再遍历；
+     * 本地缓存的快照更新后重新遍历。已注入的响应不应再被修改；
+     * 需开启本地缓存（{@code dict-auto.cache.enabled}），否则无法感知字典值的变化，不生效
+     */
+    @Getter
+    @Setter
+    public static class Idempotent {
+        /**
+         * 是否跳过已注入的响应
+         */
+        private boolean enabled = false;
+    }
+
+    /**
+     * 字典项缺失时的处理，除 FAIL 外不创建异常和消息；降级（如加载超时）注入时缺失的属性均保留为空，
+     * 延迟注入（{@link Lazy}）的字典项不在注入时获取，不适用
+     */
+    @Getter
+    @Setter
+    public static class Missing {
+        /**
+         * 处理方式
+         */
+        private Policy policy = Policy.FAIL;
+        /**
+         * PLACEHOLDER 时占位字典项的 name
+         */
+        private String placeholderName = "";
+
+        /**
+         * 处理方式
+         */
+        public enum Policy {
+            /**
+             * 抛出 NullPointerException，响应失败
+             */
+            FAIL,
+            /**
+             * 属性保留为空
+             */
+            NULL,
+            /**
+             * 注入同类型共用的占位字典项，id 为null，name 为 placeholderName；占位字典项不可修改，
+             * 属性为 DictItemDto 的子类时同 NULL
+             */
+            PLACEHOLDER,
+            /**
+             * 属性保留为空，记录到本次注入的 {@code DictMissingReport}，每次响应汇总记录一次日志和指标，流式响应每块记录一次
+             */
+            REPORT
+        }
+    }
+
+    /**
+     * 并行注入配置，开启后元素数超过阈值的 {@code RandomAccess} List 和数组拆分为 fork/join 任务并行遍历，
+     * 待注入属性数超过阈值时并行注入
+     */
+    @Getter
+    @Setter
+    public static class Parallel {
+        /**
+         * 是否开启并行注入
+         */
+        private boolean enabled = false;
+        /**
+         * 超过该数量时并行处理
+         */
+        private int threshold = 10000;
+        /**
+         * 每个任务处理的元素数
+         */
+        private int chunkSize = 2048;
+    }
+
+    /**
+     * 流式响应配置，{@code Stream}、{@code Iterator} 响应在消费时按块注入，每块获取一次字典值；
+     * 开启本地缓存时各块共用缓存的字典快照
+     */
+    @Getter
+    @Setter
+    public static class Stream {
+        /**
+         * 每块的元素数
+         */
+        private int chunkSize = 1000;
+    }
+
+    /**
+     * 注入指标配置，有 Micrometer {@code MeterRegistry} 时发布各阶段耗时、遍历对象数、注入属性数、
+     * 获取的字典项数和缓存命中数
+     */
+    @Getter
+    @Setter
+    public static class Metrics {
+        /**
+         * 是否发布指标
+         */
+        private boolean enabled = true;
+    }
 }
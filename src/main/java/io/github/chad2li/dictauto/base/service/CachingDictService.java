@@ -0,0 +1,485 @@
+package io.github.chad2li.dictauto.base.service;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ArrayUtil;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.index.DictSnapshotFile;
+import io.github.chad2li.dictauto.base.index.DictTypeIndex;
+import io.github.chad2li.dictauto.base.metrics.DictMetrics;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带本地缓存的字典服务
+ * <p>
+ * 1. 按字典类型缓存快照，快照中包含已构建的 {@link DictTypeIndex}<br/>
+ * 2. 快照距过期不足 {@code refreshAhead} 时，后台刷新，当前请求继续使用旧快照<br/>
+ * 3. 快照已过期时，若有刷新任务则继续使用旧快照，否则同步重新加载<br/>
+ * 4. 未缓存的类型合并为一次 {@link IDictService#list(String...)} 同步加载<br/>
+ * 5. {@link #prefetch(String...)} 后台预取的类型，同步加载时等待预取完成，不重复加载；等待超时后同步加载<br/>
+ * 6. 配置了 {@code snapshotFile} 时，加载后在后台将所有快照写入文件；启动时以内存映射方式读取该文件，
+ * 读取的快照仅用于 {@link #index(boolean, String...)}，使用时后台刷新，刷新完成前直接查询映射的文件；
+ * 读取的字典项均为 {@link DictItemDto}，注入的属性为其子类时须同步加载<br/>
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/15 10:10
+ */
+@Slf4j
+public class CachingDictService<I, T extends DictItemDto<I>> implements IDictService<I, T>, AutoCloseable {
+    private final IDictService<I, T> delegate;
+    private final long ttlNanos;
+    /**
+     * 快照加载后多久开始后台刷新
+     */
+    private final long refreshAtNanos;
+    private final ExecutorService refreshExecutor;
+    private final Map<String, Snapshot<T>> snapshots = new ConcurrentHashMap<>();
+    /**
+     * 预取中的类型
+     */
+    private final Map<String, Future<?>> prefetching = new ConcurrentHashMap<>();
+    private final DictMetrics metrics;
+    /**
+     * 快照文件，未配置时为null
+     */
+    @Nullable
+    private final Path snapshotFile;
+    private final AtomicBoolean persistScheduled = new AtomicBoolean(false);
+    /**
+     * 快照版本，字典项变化或清除后递增；首次加载的类型不递增
+     */
+    private final AtomicLong version = new AtomicLong();
+    /**
+     * 等待预取的最长时间
+     */
+    private final long awaitNanos;
+
+    public CachingDictService(IDictService<I, T> delegate, DictAutoProperties.Cache cacheProps) {
+        this(delegate, cacheProps, DictMetrics.NOOP);
+    }
+
+    public CachingDictService(IDictService<I, T> delegate, DictAutoProperties.Cache cacheProps,
+                              DictMetrics metrics) {
+        this(delegate, cacheProps, metrics, new DictAutoProperties.Async().getTimeout());
+    }
+
+    /**
+     * @param awaitTimeout 等待预取的最长时间，与 {@link DictAutoProperties.Async#getTimeout()} 一致
+     */
+    public CachingDictService(IDictService<I, T> delegate, DictAutoProperties.Cache cacheProps,
+                              DictMetrics metrics, Duration awaitTimeout) {
+        this.delegate = delegate;
+        this.awaitNanos = Math.max(0L, awaitTimeout.toNanos());
+        this.metrics = metrics;
+        this.ttlNanos = cacheProps.getTtl().toNanos();
+        this.refreshAtNanos = Math.max(0L, ttlNanos - cacheProps.getRefreshAhead().toNanos());
+        this.refreshExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("dict-auto-refresh-", true));
+        this.snapshotFile = CharSequenceUtil.isEmpty(cacheProps.getSnapshotFile())
+                ? null : Paths.get(cacheProps.getSnapshotFile());
+        restore();
+    }
+
+    @Override
+    public List<T> list(String... type) {
+        List<T> dictList = new ArrayList<>();
+        for (Snapshot<T> snapshot : snapshots(false, type).values()) {
+            dictList.addAll(snapshot.items);
+        }
+        return dictList;
+    }
+
+    /**
+     * 获取缓存的字典索引，不重新构建
+     *
+     * @param type 字典类型
+     * @return 字典索引
+     * @author chad
+     * @since 1 by chad at 2023/9/15
+     */
+    public DictIndex index(String... type) {
+        return index(true, type);
+    }
+
+    /**
+     * 获取缓存的字典索引，不重新构建
+     *
+     * @param restored 是否可使用从快照文件读取的字典项，为 false 时同步加载这些类型
+     * @param type     字典类型
+     * @return 字典索引
+     * @author chad
+     * @since 5 by chad at 2023/10/6
+     */
+    public DictIndex index(boolean restored, String... type) {
+        Map<String, Snapshot<T>> current = snapshots(restored, type);
+        List<DictTypeIndex> typeIndexes = new ArrayList<>(current.size());
+        for (Snapshot<T> snapshot : current.values()) {
+            typeIndexes.add(snapshot.index);
+        }
+        return DictIndex.ofTypes(typeIndexes);
+    }
+
+    /**
+     * 使用已缓存的快照（包括已过期的）组成字典索引，不加载，用于加载失败时降级
+     *
+     * @param type 字典类型
+     * @return 字典索引，未缓存的类型不包含
+     * @author chad
+     * @since 3 by chad at 2023/9/27
+     */
+    public DictIndex staleIndex(String... type) {
+        return staleIndex(true, type);
+    }
+
+    /**
+     * 使用已缓存的快照（包括已过期的）组成字典索引，不加载，用于加载失败时降级
+     *
+     * @param restored 是否可使用从快照文件读取的字典项
+     * @param type     字典类型
+     * @return 字典索引，未缓存的类型不包含
+     * @author chad
+     * @since 5 by chad at 2023/10/6
+     */
+    public DictIndex staleIndex(boolean restored, String... type) {
+        if (ArrayUtil.isEmpty(type)) {
+            return DictIndex.EMPTY;
+        }
+        List<DictTypeIndex> typeIndexes = new ArrayList<>(type.length);
+        for (String t : type) {
+            Snapshot<T> snapshot = snapshots.get(t);
+            if (null != snapshot && (restored || !snapshot.isRestored())) {
+                typeIndexes.add(snapshot.index);
+            }
+        }
+        return DictIndex.ofTypes(typeIndexes);
+    }
+
+    /**
+     * 在后台加载未缓存或已过期的类型，不等待加载完成
+     *
+     * @param type 字典类型
+     * @author chad
+     * @since 2 by chad at 2023/9/25
+     */
+    public void prefetch(String... type) {
+        if (ArrayUtil.isEmpty(type)) {
+            return;
+        }
+        long now = System.nanoTime();
+        List<String> missing = null;
+        for (String t : type) {
+            Snapshot<T> snapshot = snapshots.get(t);
+            if ((null == snapshot || now - snapshot.loadedAt >= ttlNanos) && !prefetching.containsKey(t)) {
+                missing = addMissing(missing, t);
+            }
+        }
+        if (null == missing) {
+            return;
+        }
+        String[] types = missing.toArray(new String[0]);
+        FutureTask<Void> task = new FutureTask<Void>(() -> load(types), null) {
+            @Override
+            protected void done() {
+                for (String t : types) {
+                    prefetching.remove(t, this);
+                }
+            }
+        };
+        for (String t : types) {
+            prefetching.put(t, task);
+        }
+        try {
+            refreshExecutor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            task.cancel(false);
+            log.debug("Dict cache prefetch rejected, type: {}", (Object) types);
+        }
+    }
+
+    /**
+     * 清除缓存，下次获取时重新加载
+     *
+     * @param type 字典类型，为空时清除所有
+     * @author chad
+     * @since 1 by chad at 2023/9/15
+     */
+    public void evict(String... type) {
+        version.incrementAndGet();
+        if (ArrayUtil.isEmpty(type)) {
+            snapshots.clear();
+            return;
+        }
+        for (String t : type) {
+            snapshots.remove(t);
+        }
+    }
+
+    /**
+     * @return 快照版本，字典值变化后递增
+     * @author chad
+     * @since 4 by chad at 2023/10/4
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * @param restored 是否可使用从文件读取的快照
+     */
+    private Map<String, Snapshot<T>> snapshots(boolean restored, String... types) {
+        if (ArrayUtil.isEmpty(types)) {
+            return Collections.emptyMap();
+        }
+        long now = System.nanoTime();
+        boolean measure = metrics.isEnabled();
+        Map<String, Snapshot<T>> result = new LinkedHashMap<>(types.length * 2);
+        List<String> missing = null;
+        for (String type : types) {
+            Snapshot<T> snapshot = snapshots.get(type);
+            if (null == snapshot || (!restored && snapshot.isRestored())) {
+                missing = addMissing(missing, type);
+                continue;
+            }
+            if (snapshot.isRestored()) {
+                // 使用文件中的快照，后台重新加载
+                refreshAsync(snapshot);
+                result.put(type, snapshot);
+                continue;
+            }
+            long age = now - snapshot.loadedAt;
+            if (age >= ttlNanos && !snapshot.refreshing.get()) {
+                // 已过期且无刷新任务
+                missing = addMissing(missing, type);
+                continue;
+            }
+            if (age >= refreshAtNanos) {
+                refreshAsync(snapshot);
+            }
+            result.put(type, snapshot);
+            if (measure) {
+                metrics.cache(type, true);
+            }
+        }
+        if (measure && null != missing) {
+            for (String type : missing) {
+                metrics.cache(type, false);
+            }
+        }
+        if (null != missing) {
+            missing = awaitPrefetch(missing, result);
+        }
+        if (null != missing) {
+            result.putAll(load(missing.toArray(new String[0])));
+        }
+        return result;
+    }
+
+    /**
+     * 等待预取中的类型，预取可能在检查快照后已完成，因此重新检查所有类型的快照；
+     * 所有类型共用 {@code awaitNanos} 的等待时间
+     *
+     * @return 仍需同步加载的类型，没有时为null
+     */
+    private List<String> awaitPrefetch(List<String> missing, Map<String, Snapshot<T>> result) {
+        List<String> remain = null;
+        long deadline = System.nanoTime() + awaitNanos;
+        for (String type : missing) {
+            Future<?> future = prefetching.get(type);
+            if (null != future) {
+                try {
+                    future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (TimeoutException ex) {
+                    log.warn("Dict cache prefetch timeout, type: {}", type);
+                } catch (ExecutionException | CancellationException ex) {
+                    log.warn("Dict cache prefetch error, type: {}", type, ex);
+                }
+            }
+            Snapshot<T> snapshot = snapshots.get(type);
+            if (null != snapshot && !snapshot.isRestored() && System.nanoTime() - snapshot.loadedAt < ttlNanos) {
+                result.put(type, snapshot);
+            } else {
+                remain = addMissing(remain, type);
+            }
+        }
+        return remain;
+    }
+
+    private static List<String> addMissing(List<String> missing, String type) {
+        if (null == missing) {
+            missing = new ArrayList<>(4);
+        }
+        missing.add(type);
+        return missing;
+    }
+
+    /**
+     * 同步加载并缓存字典类型，无字典项的类型也缓存为空快照；已缓存的类型字典项变化时递增版本
+     */
+    private Map<String, Snapshot<T>> load(String... types) {
+        log.debug("Dict cache load: {}", (Object) types);
+        List<T> dictList = delegate.list(types);
+        Map<String, List<T>> group = new HashMap<>(types.length * 2);
+        for (String type : types) {
+            group.put(type, new ArrayList<>());
+        }
+        if (null != dictList) {
+            for (T item : dictList) {
+                List<T> items = group.get(item.getType());
+                if (null != items) {
+                    items.add(item);
+                }
+            }
+        }
+        long now = System.nanoTime();
+        Map<String, Snapshot<T>> loaded = new HashMap<>(types.length * 2);
+        boolean changed = false;
+        for (Map.Entry<String, List<T>> entry : group.entrySet()) {
+            Snapshot<T> snapshot = new Snapshot<>(entry.getKey(), entry.getValue(), now);
+            Snapshot<T> previous = snapshots.put(entry.getKey(), snapshot);
+            // 从文件读取的快照不比较字典项，视为变化
+            changed |= null != previous && (previous.isRestored() || !previous.items.equals(snapshot.items));
+            loaded.put(entry.getKey(), snapshot);
+        }
+        if (changed) {
+            version.incrementAndGet();
+        }
+        persistAsync();
+        return loaded;
+    }
+
+    /**
+     * 读取快照文件，文件不存在或格式错误时忽略
+     */
+    private void restore() {
+        if (null == snapshotFile || !Files.isRegularFile(snapshotFile)) {
+            return;
+        }
+        try {
+            // 视为已过期，首次使用时后台刷新
+            long loadedAt = System.nanoTime() - ttlNanos;
+            for (DictTypeIndex index : DictSnapshotFile.read(snapshotFile)) {
+                snapshots.putIfAbsent(index.getType(), new Snapshot<>(index, loadedAt));
+            }
+            log.info("Dict snapshot restored: {}, type size: {}", snapshotFile, snapshots.size());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Dict snapshot restore error: {}", snapshotFile, ex);
+        }
+    }
+
+    /**
+     * 在后台将所有快照写入文件，写入前的多次加载合并为一次写入
+     */
+    private void persistAsync() {
+        if (null == snapshotFile || !persistScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                persistScheduled.set(false);
+                List<DictTypeIndex> indexes = new ArrayList<>(snapshots.size());
+                for (Snapshot<T> snapshot : snapshots.values()) {
+                    indexes.add(snapshot.index);
+                }
+                try {
+                    DictSnapshotFile.write(snapshotFile, indexes);
+                    log.debug("Dict snapshot persisted: {}, type size: {}", snapshotFile, indexes.size());
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Dict snapshot persist error: {}", snapshotFile, ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            persistScheduled.set(false);
+        }
+    }
+
+    private void refreshAsync(Snapshot<T> snapshot) {
+        if (!snapshot.refreshing.compareAndSet(false, true)) {
+            // 已有刷新任务
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(snapshot.type);
+                } catch (Exception ex) {
+                    log.warn("Dict cache refresh error, type: {}", snapshot.type, ex);
+                } finally {
+                    snapshot.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            snapshot.refreshing.set(false);
+            log.debug("Dict cache refresh rejected, type: {}", snapshot.type);
+        }
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 单个字典类型的快照
+     */
+    private static final class Snapshot<T extends DictItemDto<?>> {
+        private final String type;
+        /**
+         * 从文件读取的快照为null
+         */
+        @Nullable
+        private final List<T> items;
+        private final DictTypeIndex index;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        private Snapshot(String type, List<T> items, long loadedAt) {
+            this.type = type;
+            this.items = Collections.unmodifiableList(items);
+            this.index = new DictTypeIndex(type, items);
+            this.loadedAt = loadedAt;
+        }
+
+        private Snapshot(DictTypeIndex index, long loadedAt) {
+            this.type = index.getType();
+            this.items = null;
+            this.index = index;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isRestored() {
+            return null == items;
+        }
+    }
+}
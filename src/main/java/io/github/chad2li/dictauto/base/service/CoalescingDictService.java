@@ -0,0 +1,156 @@
+package io.github.chad2li.dictauto.base.service;
+
+import cn.hutool.core.util.ArrayUtil;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.DictKeyDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 合并并发请求的字典服务
+ * <p>
+ * 1. 同一类型同时只有一次 {@link IDictService#list(String...)} 调用，并发请求等待并共享该次结果<br/>
+ * 2. 配置了 {@code window} 时，发起调用的线程先等待该时长，期间其他线程请求的类型合并到同一次调用<br/>
+ * 3. {@link #listByKeys(Collection)} 直接调用被代理服务，不合并<br/>
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/26 10:00
+ */
+@Slf4j
+public class CoalescingDictService<I, T extends DictItemDto<I>> implements IDictService<I, T> {
+    private final IDictService<I, T> delegate;
+    private final long windowNanos;
+    /**
+     * 加载中的类型
+     */
+    private final Map<String, CompletableFuture<List<T>>> inflight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    /**
+     * 等待中、可加入新类型的批次
+     */
+    private Batch<T> open;
+
+    public CoalescingDictService(IDictService<I, T> delegate, DictAutoProperties.Coalesce coalesceProps) {
+        this.delegate = delegate;
+        this.windowNanos = Math.max(0L, coalesceProps.getWindow().toNanos());
+    }
+
+    @Override
+    public List<T> list(String... type) {
+        if (ArrayUtil.isEmpty(type)) {
+            return delegate.list(type);
+        }
+        Map<String, CompletableFuture<List<T>>> futures = new LinkedHashMap<>(type.length * 2);
+        Batch<T> lead = null;
+        synchronized (lock) {
+            for (String t : type) {
+                if (futures.containsKey(t)) {
+                    continue;
+                }
+                CompletableFuture<List<T>> future = inflight.get(t);
+                if (null == future) {
+                    if (null == open) {
+                        open = new Batch<>();
+                        lead = open;
+                    }
+                    future = new CompletableFuture<>();
+                    open.futures.put(t, future);
+                    inflight.put(t, future);
+                }
+                futures.put(t, future);
+            }
+        }
+        if (null != lead) {
+            load(lead);
+        }
+        List<T> dictList = new ArrayList<>();
+        for (CompletableFuture<List<T>> future : futures.values()) {
+            dictList.addAll(join(future));
+        }
+        return dictList;
+    }
+
+    @Override
+    public List<T> listByKeys(Collection<DictKeyDto> keys) {
+        return delegate.listByKeys(keys);
+    }
+
+    /**
+     * 等待合并窗口后关闭批次，一次加载批次中的所有类型
+     */
+    private void load(Batch<T> batch) {
+        if (windowNanos > 0) {
+            LockSupport.parkNanos(windowNanos);
+        }
+        Map<String, CompletableFuture<List<T>>> futures;
+        synchronized (lock) {
+            if (open == batch) {
+                open = null;
+            }
+            futures = batch.futures;
+        }
+        String[] types = futures.keySet().toArray(new String[0]);
+        log.debug("Dict coalesced load: {}", (Object) types);
+        try {
+            List<T> dictList = delegate.list(types);
+            Map<String, List<T>> group = new HashMap<>(types.length * 2);
+            for (String t : types) {
+                group.put(t, new ArrayList<>());
+            }
+            if (null != dictList) {
+                for (T item : dictList) {
+                    List<T> items = group.get(item.getType());
+                    if (null != items) {
+                        items.add(item);
+                    }
+                }
+            }
+            for (Map.Entry<String, CompletableFuture<List<T>>> entry : futures.entrySet()) {
+                entry.getValue().complete(group.get(entry.getKey()));
+            }
+        } catch (RuntimeException | Error ex) {
+            for (CompletableFuture<List<T>> future : futures.values()) {
+                future.completeExceptionally(ex);
+            }
+        } finally {
+            for (Map.Entry<String, CompletableFuture<List<T>>> entry : futures.entrySet()) {
+                inflight.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static <T> List<T> join(CompletableFuture<List<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 一次合并加载的类型
+     */
+    private static final class Batch<T> {
+        private final Map<String, CompletableFuture<List<T>>> futures = new LinkedHashMap<>(4);
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.chad2li.dictauto.base.service;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import org.springframework.lang.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 字典项常量池，相同的字典项及其 type、name 字符串只保留一份
+ * <p>
+ * 1. 字典项按类相同、id、parentId、type、name 相同且 {@code equals} 为true视为相同，
+ * 子类仅比较自身属性时不会合并 id 不同的字典项<br/>
+ * 2. 池中仅弱引用，无其他引用的字典项和字符串可被回收<br/>
+ * 入池后的字典项为多个响应共享，不可再修改
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/29 10:00
+ */
+public final class DictItemPool {
+    private final WeakPool<DictItemDto<?>> items = new WeakPool<DictItemDto<?>>() {
+        @Override
+        int hash(DictItemDto<?> item) {
+            return 31 * item.getClass().hashCode()
+                    + Objects.hash(item.getId(), item.getParentId(), item.getType(), item.getName());
+        }
+
+        @Override
+        boolean same(DictItemDto<?> a, DictItemDto<?> b) {
+            return a.getClass() == b.getClass()
+                    && Objects.equals(a.getId(), b.getId())
+                    && Objects.equals(a.getParentId(), b.getParentId())
+                    && Objects.equals(a.getType(), b.getType())
+                    && Objects.equals(a.getName(), b.getName())
+                    && a.equals(b);
+        }
+    };
+    private final WeakPool<String> strings = new WeakPool<String>() {
+        @Override
+        int hash(String str) {
+            return str.hashCode();
+        }
+
+        @Override
+        boolean same(String a, String b) {
+            return a.equals(b);
+        }
+    };
+
+    /**
+     * 获取池中相同的字典项，不存在时共用字符串后放入池中
+     *
+     * @param item 字典项
+     * @return 池中的字典项
+     * @author chad
+     * @since 1 by chad at 2023/9/29
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends DictItemDto<?>> T intern(T item) {
+        DictItemDto<?> pooled = items.get(item);
+        if (null != pooled) {
+            return (T) pooled;
+        }
+        item.setType(intern(item.getType()));
+        item.setName(intern(item.getName()));
+        return (T) items.intern(item);
+    }
+
+    /**
+     * 获取池中相同的字符串
+     *
+     * @param str 字符串
+     * @return 池中的字符串
+     * @author chad
+     * @since 1 by chad at 2023/9/29
+     */
+    @Nullable
+    public String intern(@Nullable String str) {
+        return null == str ? null : strings.intern(str);
+    }
+
+    /**
+     * @return 池中未回收的字典项数
+     */
+    public int size() {
+        items.expunge();
+        return items.map.size();
+    }
+
+    /**
+     * 弱引用常量池，key 与 value 为同一个引用
+     */
+    private abstract static class WeakPool<E> {
+        private final ConcurrentHashMap<Key, Ref> map = new ConcurrentHashMap<>();
+        private final ReferenceQueue<E> queue = new ReferenceQueue<>();
+
+        abstract int hash(E e);
+
+        abstract boolean same(E a, E b);
+
+        @Nullable
+        E get(E e) {
+            Ref ref = map.get(new Probe(e));
+            return null == ref ? null : ref.get();
+        }
+
+        E intern(E e) {
+            expunge();
+            Probe probe = new Probe(e);
+            while (true) {
+                Ref ref = map.get(probe);
+                if (null == ref) {
+                    ref = new Ref(e, probe.hash);
+                    Ref previous = map.putIfAbsent(ref, ref);
+                    if (null == previous) {
+                        return e;
+                    }
+                    ref = previous;
+                }
+                E pooled = ref.get();
+                if (null != pooled) {
+                    return pooled;
+                }
+                // 已回收，移除后重试
+                map.remove(ref, ref);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void expunge() {
+            Reference<? extends E> reference;
+            while (null != (reference = queue.poll())) {
+                Ref ref = ((Tracked) reference).owner;
+                map.remove(ref, ref);
+            }
+        }
+
+        private abstract class Key {
+            final int hash;
+
+            Key(int hash) {
+                this.hash = hash;
+            }
+
+            @Nullable
+            abstract E target();
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean equals(Object obj) {
+                if (this == obj) {
+                    return true;
+                }
+                if (!(obj instanceof WeakPool.Key)) {
+                    return false;
+                }
+                Key other = (Key) obj;
+                E a = target();
+                E b = other.target();
+                // 已回收的引用仅与自身相同
+                return hash == other.hash && null != a && null != b && same(a, b);
+            }
+        }
+
+        /**
+         * 查询用的强引用 key
+         */
+        private final class Probe extends Key {
+            private final E value;
+
+            Probe(E value) {
+                super(hash(value));
+                this.value = value;
+            }
+
+            @Override
+            E target() {
+                return value;
+            }
+        }
+
+        /**
+         * 池中的弱引用 key
+         */
+        private final class Ref extends Key {
+            private final Tracked reference;
+
+            Ref(E value, int hash) {
+                super(hash);
+                this.reference = new Tracked(value, this);
+            }
+
+            @Override
+            E target() {
+                return reference.get();
+            }
+
+            @Nullable
+            E get() {
+                return reference.get();
+            }
+        }
+
+        /**
+         * 回收后通过 owner 从池中移除
+         */
+        private final class Tracked extends WeakReference<E> {
+            private final Ref owner;
+
+            Tracked(E value, Ref owner) {
+                super(value, queue);
+                this.owner = owner;
+            }
+        }
+    }
+}
@@ -2,8 +2,12 @@ package io.github.chad2li.dictauto.base.service;
 
 import io.github.chad2li.dictauto.base.cst.DictCst;
 import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.DictKeyDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * 获取字典数据的服务
@@ -27,4 +31,35 @@ public interface IDictService<I, T extends DictItemDto<I>> {
      * @since 1 by chad at 2023/8/25
      */
     List<T> list(String... type);
+
+    /**
+     * 仅查询被引用的字典项，返回结果可多于 keys，但需包含 keys 对应的所有字典项
+     * <p>
+     * 默认按类型调用 {@link #list(String...)} 查询全部，字典数据量大时建议实现
+     * </p>
+     *
+     * @param keys 响应中引用的字典项，不为空
+     * @return dict list
+     * @author chad
+     * @since 2 by chad at 2023/9/16
+     */
+    default List<T> listByKeys(Collection<DictKeyDto> keys) {
+        return list(keys.stream().map(DictKeyDto::getType).distinct().toArray(String[]::new));
+    }
+
+    /**
+     * 异步查询被引用的字典项，开启 {@code dict-auto.async.enabled} 时使用
+     * <p>
+     * 默认在 executor 中调用 {@link #listByKeys(Collection)}，有异步客户端时建议实现，不占用 executor 线程
+     * </p>
+     *
+     * @param keys     响应中引用的字典项，不为空
+     * @param executor 异步加载的线程池
+     * @return dict list
+     * @author chad
+     * @since 3 by chad at 2023/9/27
+     */
+    default CompletableFuture<List<T>> listByKeysAsync(Collection<DictKeyDto> keys, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> listByKeys(keys), executor);
+    }
 }
@@ -0,0 +1,61 @@
+package io.github.chad2li.dictauto.base.service;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.DictKeyDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 共用字典项实例的字典服务
+ * <p>
+ * 每次加载返回的字典项都放入 {@link DictItemPool}，与已加载的相同字典项替换为同一实例，
+ * 缓存或排队中的响应引用的是同一份字典项和字符串
+ * </p>
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/29 10:30
+ */
+public class InterningDictService<I, T extends DictItemDto<I>> implements IDictService<I, T> {
+    private final IDictService<I, T> delegate;
+    private final DictItemPool pool;
+
+    public InterningDictService(IDictService<I, T> delegate) {
+        this(delegate, new DictItemPool());
+    }
+
+    public InterningDictService(IDictService<I, T> delegate, DictItemPool pool) {
+        this.delegate = delegate;
+        this.pool = pool;
+    }
+
+    @Override
+    public List<T> list(String... type) {
+        return intern(delegate.list(type));
+    }
+
+    @Override
+    public List<T> listByKeys(Collection<DictKeyDto> keys) {
+        return intern(delegate.listByKeys(keys));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> listByKeysAsync(Collection<DictKeyDto> keys, Executor executor) {
+        return delegate.listByKeysAsync(keys, executor).thenApply(this::intern);
+    }
+
+    private List<T> intern(List<T> dictList) {
+        if (null == dictList) {
+            return null;
+        }
+        List<T> interned = new ArrayList<>(dictList.size());
+        for (T item : dictList) {
+            interned.add(null == item ? null : pool.intern(item));
+        }
+        return interned;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.chad2li.dictauto.base.util;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池工具
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/27 10:00
+ */
+@Slf4j
+public class DictExecutorUtil {
+
+    /**
+     * 创建异步加载字典值的线程池
+     * <p>
+     * JDK 21 及以上且开启 {@code virtualThreads} 时每个任务一个虚拟线程，否则为固定大小的守护线程池
+     * </p>
+     *
+     * @param asyncProps 配置
+     * @return executor，由调用方关闭
+     * @author chad
+     * @since 1 by chad at 2023/9/27
+     */
+    public static ExecutorService newAsyncExecutor(DictAutoProperties.Async asyncProps) {
+        if (asyncProps.isVirtualThreads()) {
+            ExecutorService executor = newVirtualThreadExecutor();
+            if (null != executor) {
+                return executor;
+            }
+        }
+        int poolSize = Math.max(1, asyncProps.getPoolSize());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("dict-auto-async-", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 通过反射调用 {@code Executors.newVirtualThreadPerTaskExecutor()}，编译目标仍为 JDK 8
+     *
+     * @return executor，JDK 不支持时为null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException ex) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            log.debug("Create virtual thread executor error", ex);
+            return null;
+        }
+    }
+
+    private DictExecutorUtil() {
+        // do nothing
+    }
+}
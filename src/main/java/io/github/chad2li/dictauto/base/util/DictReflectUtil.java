@@ -4,8 +4,13 @@ import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.ReflectUtil;
+import io.github.chad2li.dictauto.base.plan.DictAccessor;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,6 +23,10 @@ import java.util.List;
  * @since 1 create by chad
  */
 public class DictReflectUtil extends ReflectUtil {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     /**
      * 获取有 {@code get, is, has} 方法的属性，并向上层类中查找
      *
@@ -39,26 +48,7 @@ public class DictReflectUtil extends ReflectUtil {
             }
             // 去掉没有 getter 方法的 field
             for (Field f : allFields) {
-                String fieldNameFirstUp = f.getName();
-                if (fieldNameFirstUp.length() > 1) {
-                    fieldNameFirstUp = fieldNameFirstUp.substring(0, 1).toUpperCase() + fieldNameFirstUp.substring(1);
-                } else {
-                    fieldNameFirstUp = fieldNameFirstUp.toUpperCase();
-                }
-
-                String methodName = "get" + fieldNameFirstUp;
-                boolean has = null != ReflectUtil.getPublicMethod(searchType, methodName, null);
-                if (!has) {
-                    methodName = "is" + fieldNameFirstUp;
-                    has = null != ReflectUtil.getPublicMethod(searchType, methodName, null);
-                }
-
-                if (!has) {
-                    methodName = "has" + fieldNameFirstUp;
-                    has = null != ReflectUtil.getPublicMethod(searchType, methodName, null);
-                }
-
-                if (!has) {
+                if (null == getGetter(searchType, f)) {
                     // 没有 getter 或 is 获取属性的 public 无参方法
                     continue;
                 }
@@ -71,4 +61,135 @@ public class DictReflectUtil extends ReflectUtil {
         }
         return fieldList.toArray(new Field[0]);
     }
+
+    /**
+     * 获取属性的 public 无参 {@code get, is, has} 方法
+     *
+     * @param beanClass 查找的类
+     * @param field     属性
+     * @return getter，没有时为null
+     * @author chad
+     * @since 2 by chad at 2023/9/19
+     */
+    public static Method getGetter(Class<?> beanClass, Field field) {
+        String fieldNameFirstUp = upperFirst(field.getName());
+        Method method = ReflectUtil.getPublicMethod(beanClass, "get" + fieldNameFirstUp);
+        if (null == method) {
+            method = ReflectUtil.getPublicMethod(beanClass, "is" + fieldNameFirstUp);
+        }
+        if (null == method) {
+            method = ReflectUtil.getPublicMethod(beanClass, "has" + fieldNameFirstUp);
+        }
+        return method;
+    }
+
+    private static String upperFirst(String fieldName) {
+        if (fieldName.length() > 1) {
+            return fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+        }
+        return fieldName.toUpperCase();
+    }
+
+    /**
+     * 创建属性读写器，同 {@link #accessor(Field, boolean)}，可写入
+     *
+     * @param field 属性
+     * @return accessor
+     * @throws IllegalStateException 属性无法读取或写入
+     * @author chad
+     * @since 2 by chad at 2023/9/12
+     */
+    public static DictAccessor accessor(Field field) {
+        return accessor(field, true);
+    }
+
+    /**
+     * 创建属性读写器
+     * <p>
+     * 与 {@link ReflectUtil#getFieldValue}、{@link ReflectUtil#setFieldValue} 一致，直接读写属性，不调用 getter/setter 方法；
+     * 创建时转为 {@link MethodHandle}，读写时不再查找属性，也不再做访问检查
+     * </p>
+     *
+     * @param field    属性
+     * @param writable 是否需要写入，为 false 时写入抛出 IllegalStateException
+     * @return accessor
+     * @throws IllegalStateException 属性无法读取，或需要写入时无法写入
+     * @author chad
+     * @since 3 by chad at 2023/10/6
+     */
+    public static DictAccessor accessor(Field field, boolean writable) {
+        Assert.notNull(field);
+        String fullName = field.getDeclaringClass().getName() + "." + field.getName();
+        MethodHandle getter;
+        MethodHandle setter = null;
+        try {
+            getter = unreflectGetter(field).asType(GETTER_TYPE);
+            if (writable) {
+                setter = unreflectSetter(field).asType(SETTER_TYPE);
+            }
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new IllegalStateException(fullName + " not accessible", ex);
+        }
+        return new MethodHandleAccessor(fullName, field.getName(), getter, setter);
+    }
+
+    private static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+        return LOOKUP.unreflectGetter(setAccessible(field));
+    }
+
+    private static MethodHandle unreflectSetter(Field field) throws IllegalAccessException {
+        return LOOKUP.unreflectSetter(setAccessible(field));
+    }
+
+    /**
+     * 基于 {@link MethodHandle} 的读写器，handle 已统一为 {@code (Object)Object} 和 {@code (Object,Object)void}
+     */
+    private static final class MethodHandleAccessor implements DictAccessor {
+        private final String fullName;
+        private final String name;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private MethodHandleAccessor(String fullName, String name, MethodHandle getter, MethodHandle setter) {
+            this.fullName = fullName;
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Object get(Object bean) {
+            try {
+                return (Object) getter.invokeExact(bean);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(fullName + " get value error", ex);
+            }
+        }
+
+        @Override
+        public boolean writable() {
+            return null != setter;
+        }
+
+        @Override
+        public void set(Object bean, Object value) {
+            if (null == setter) {
+                throw new IllegalStateException(fullName + " not writable");
+            }
+            try {
+                setter.invokeExact(bean, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(fullName + " set value error", ex);
+            }
+        }
+    }
 }
@@ -3,18 +3,26 @@ package io.github.chad2li.dictauto.base.util;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.text.CharSequenceUtil;
-import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.ReflectUtil;
 import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.cst.DictCst;
 import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.engine.DictCollector;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.plan.DictAccessor;
+import io.github.chad2li.dictauto.base.plan.DictClassPlan;
+import io.github.chad2li.dictauto.base.plan.DictSlot;
 import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.Nullable;
 
-import java.lang.reflect.Field;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -44,6 +52,19 @@ public class DictUtil {
         return injectionDict(dictObj, true, null, null);
     }
 
+    /**
+     * 查询对象中所有DictId注解
+     *
+     * @param dictObj   对象
+     * @param dictProps 配置，使用其中的属性后缀和 maxDepth
+     * @return dictId
+     * @author chad
+     * @since 3 by chad at 2023/10/6
+     */
+    public static Set<DictId> queryDictAnnotation(Object dictObj, DictAutoProperties dictProps) {
+        return injectionDict(dictObj, true, null, dictProps);
+    }
+
     /**
      * 注入字典值
      *
@@ -54,7 +75,22 @@ public class DictUtil {
      */
     public static <I> void injectionDict(Object dictObj, Map<String, DictItemDto<I>> dictMap,
                                          DictAutoProperties dictProps) {
-        injectionDict(dictObj, false, dictMap, dictProps);
+        collect(dictObj, dictProps).inject(dictMap);
+    }
+
+    /**
+     * 遍历一次对象，收集所有待注入的字典属性，获取字典值后通过 {@link DictCollector#inject(DictIndex)} 注入
+     *
+     * @param dictObj   对象
+     * @param dictProps 配置
+     * @return 待注入的字典属性
+     * @author chad
+     * @since 2 by chad at 2023/9/13
+     */
+    public static DictCollector collect(Object dictObj, DictAutoProperties dictProps) {
+        DictCollector collector = new DictCollector(dictProps);
+        collector.collect(dictObj);
+        return collector;
     }
 
     /**
@@ -63,230 +99,150 @@ public class DictUtil {
      * @param dictObj 对象
      * @param isQuery 是否仅获取注解
      * @param dictMap 所有字典值
+     * @return isQuery为true时返回所有DictId注解，否则返回已注入的DictId注解
      * @date 2022/5/19 13:13
      * @author chad
      * @since 1 by chad at 2022/5/19
      */
     public static <I> Set<DictId> injectionDict(Object dictObj, boolean isQuery,
                                                 @Nullable Map<String, DictItemDto<I>> dictMap,
-                                                DictAutoProperties dictProps) {
+                                                @Nullable DictAutoProperties dictProps) {
+        if (!isQuery) {
+            DictCollector collector = collect(dictObj, dictProps);
+            collector.inject(dictMap);
+            return collector.dictIds();
+        }
+        Set<DictId> dictSet = new HashSet<>(4);
+        queryDict(dictObj, Collections.newSetFromMap(new IdentityHashMap<>()), 0, dictSet, dictProps);
+        return dictSet;
+    }
+
+    /**
+     * 递归查询所有DictId注解，按引用跳过已解析的对象，超过 maxDepth 不再深入
+     *
+     * @param dictObj   对象
+     * @param visited   已解析的对象和集合
+     * @param depth     对象所在层级
+     * @param dictSet   所有DictId注解
+     * @param dictProps 配置，为null时使用默认配置
+     * @author chad
+     * @since 1 by chad at 2022/5/19
+     */
+    private static void queryDict(@Nullable Object dictObj, Set<Object> visited, int depth, Set<DictId> dictSet,
+                                  @Nullable DictAutoProperties dictProps) {
         if (null == dictObj) {
             log.debug("Result is null");
-            return Collections.emptySet();
+            return;
         }
         if (dictObj instanceof DictItemDto) {
             log.debug("Skip {}", DictItemDto.class.getName());
-            return Collections.emptySet();
+            return;
+        }
+        if (!visited.add(dictObj)) {
+            return;
         }
-        Set<DictId> dictSet;
         if (dictObj instanceof Iterable) {
             // iterable
-            dictSet = injectionIterable((Iterable<?>) dictObj, isQuery, dictMap, dictProps);
+            queryIterable((Iterable<?>) dictObj, visited, depth, dictSet, dictProps);
         } else if (dictObj instanceof Map) {
-            // map
-            dictSet = injectionMap((Map<?, ?>) dictObj, isQuery, dictMap, dictProps);
+            // map，仅解析 value
+            queryIterable(((Map<?, ?>) dictObj).values(), visited, depth, dictSet, dictProps);
         } else {
             // other
-            dictSet = injectionObject(dictObj, isQuery, dictMap, dictProps);
-        }
-        return CollUtil.newHashSet(dictSet);
-    }
-
-
-    /**
-     * 解析特定属性
-     *
-     * @param dictObj 当前对象
-     * @param field   对象属性
-     * @param isQuery 是否仅获取注解
-     * @param dictMap 所有字典值
-     * @return 所有DictId注解
-     * @author chad
-     * @since 1 by chad at 2023/8/25
-     */
-    @Nullable
-    private static <I> Set<DictId> injectionDict(Object dictObj, Field field, boolean isQuery,
-                                                 @Nullable Map<String, DictItemDto<I>> dictMap,
-                                                 DictAutoProperties dictProps) {
-        Class<?> resultCls = dictObj.getClass();
-        DictId dictId = field.getAnnotation(DictId.class);
-        if (null == dictId) {
-            // 递归
-            log.debug("{}.{} not {}", resultCls.getName(), field.getName(), DictId.class.getName());
-            Object fieldValue;
-            try {
-                fieldValue = DictReflectUtil.getFieldValue(dictObj, field);
-            } catch (Exception ex) {
-                throw new IllegalStateException(resultCls.getName() + "." + field.getName() + " get value error", ex);
-            }
-
-            // 深度解析
-            return injectionDict(fieldValue, isQuery, dictMap, dictProps);
-        }
-
-        if (isQuery) {
-            // 如果仅查询注解，则直接返回
-            return Collections.singleton(dictId);
-        }
-
-        // dict field value
-        I fieldValue;
-        try {
-            fieldValue = (I) DictReflectUtil.getFieldValue(dictObj, field);
-        } catch (Exception ex) {
-            throw new IllegalStateException(resultCls.getName() + "." + field.getName() + " get value error", ex);
+            queryObject(dictObj, visited, depth, dictSet, dictProps);
         }
-        if (ObjectUtil.isEmpty(fieldValue)) {
-            log.debug("{}.{} value is null", resultCls.getName(), field.getName());
-            return Collections.singleton(dictId);
-        }
-
-        // check DictItemDto field exists
-        String dictItemName = getTargetName(dictId, field.getName(), dictProps);
-        log.debug("{}.{} dict item name: {}", resultCls.getName(), field.getName(), dictItemName);
-
-        if (!DictReflectUtil.hasField(resultCls, dictItemName)) {
-            log.debug("{}.{} has not dict item name: {}", resultCls.getName(), field.getName(), dictItemName);
-            return Collections.singleton(dictId);
-        }
-        try {
-            Object dictItemValue = DictReflectUtil.getFieldValue(dictObj, dictItemName);
-            if (null != dictItemValue) {
-                log.debug("{}.{} value exists, skip auto injection", resultCls.getName(), dictItemName);
-                return Collections.singleton(dictId);
-            }
-        } catch (Exception ex) {
-            throw new IllegalStateException(resultCls.getName() + "." + dictItemName + " get value error", ex);
-        }
-        // 解析 parent，可能为null
-        String parentId = parseParentId(dictObj, dictId, dictProps);
-        // 获取字典值
-        DictItemDto<?> dictItem = getDict(dictMap, dictId.type(), parentId, fieldValue);
-        if (null == dictItem) {
-            throw new NullPointerException(resultCls.getName() + "." + field.getName()
-                    + " not found value, id:" + fieldValue + ", type:" + dictId.type());
-        }
-        try {
-            DictReflectUtil.setFieldValue(dictObj, dictItemName, dictItem);
-        } catch (Exception ex) {
-            throw new RuntimeException(resultCls.getName() + "." + dictItemName + " set value error", ex);
-        }
-        return Collections.singleton(dictId);
     }
 
     /**
-     * 解析 iterable，
+     * 查询 iterable 中所有DictId注解
      *
-     * @param iterable 被解析的{@code iterable}对象
-     * @param isQuery  是否仅获取注解
-     * @param dictMap  所有字典值
+     * @param iterable  被解析的{@code iterable}对象
+     * @param visited   已解析的对象和集合
+     * @param depth     元素所在层级
+     * @param dictSet   所有DictId注解
+     * @param dictProps 配置
      * @date 2022/5/19 13:06
      * @author chad
      * @since 1 by chad at 2022/5/19
      */
-    private static <I> Set<DictId> injectionIterable(Iterable<?> iterable, boolean isQuery,
-                                                     @Nullable Map<String, DictItemDto<I>> dictMap,
-                                                     DictAutoProperties dictProps) {
+    private static void queryIterable(Iterable<?> iterable, Set<Object> visited, int depth, Set<DictId> dictSet,
+                                      @Nullable DictAutoProperties dictProps) {
         if (CollectionUtil.isEmpty(iterable)) {
             log.debug("{} empty", iterable.getClass().getName());
-            return Collections.emptySet();
+            return;
         }
-
-        Set<DictId> dictSet = new HashSet<>(4);
         // 遍历 iterable
-        Set<DictId> subDictSet;
         for (Object o : iterable) {
-            subDictSet = injectionDict(o, isQuery, dictMap, dictProps);
-            if (CollUtil.isNotEmpty(subDictSet)) {
-                dictSet.addAll(subDictSet);
-            }
+            queryDict(o, visited, depth, dictSet, dictProps);
         }
-        return dictSet;
     }
 
     /**
-     * 解析Map，仅解析 value
+     * 查询对象中所有DictId注解
      *
-     * @param map     需要被解析的map
-     * @param isQuery 是否仅获取注解
-     * @param dictMap 所有字典值
+     * @param dictObj   需要解析的对象
+     * @param visited   已解析的对象和集合
+     * @param depth     对象所在层级
+     * @param dictSet   所有DictId注解
+     * @param dictProps 配置
      * @date 2022/5/19 13:06
      * @author chad
      * @since 1 by chad at 2022/5/19
      */
-    private static <I> Set<DictId> injectionMap(Map<?, ?> map, boolean isQuery,
-                                                @Nullable Map<String, DictItemDto<I>> dictMap,
-                                                DictAutoProperties dictProps) {
-        if (CollectionUtil.isEmpty(map)) {
-            log.debug("{} empty", map.getClass().getName());
-            return Collections.emptySet();
+    private static void queryObject(Object dictObj, Set<Object> visited, int depth, Set<DictId> dictSet,
+                                    @Nullable DictAutoProperties dictProps) {
+        DictClassPlan plan = DictClassPlan.of(dictObj.getClass(), dictProps);
+        if (plan.isEmpty()) {
+            log.debug("{} has not any field", dictObj.getClass().getName());
+            return;
         }
 
-        // 遍历 iterable
-        return injectionIterable(map.values(), isQuery, dictMap, dictProps);
-    }
-
-    /**
-     * 解析对象
-     *
-     * @param dictObj 需要解析的对象
-     * @param isQuery 是否仅获取注解
-     * @param dictMap 所有字典值
-     * @date 2022/5/19 13:06
-     * @author chad
-     * @since 1 by chad at 2022/5/19
-     */
-    private static <I> Set<DictId> injectionObject(Object dictObj, boolean isQuery,
-                                                   @Nullable Map<String, DictItemDto<I>> dictMap,
-                                                   DictAutoProperties dictProps) {
-        Class<?> resultCls = dictObj.getClass();
-        log.debug("Dict injection: {}", resultCls.getName());
-
-        // dictObj 为基本类型
-        if (isBaseType(resultCls)) {
-            log.debug("{} is base type", resultCls.getName());
-            return Collections.emptySet();
+        List<DictSlot> slots = plan.getSlots();
+        for (int i = 0, size = slots.size(); i < size; i++) {
+            dictSet.add(slots.get(i).getDictId());
         }
-        // 循环解析属性
-        Field[] fields = DictReflectUtil.getFieldsDirectlyHasGetter(resultCls, true);
-        if (ArrayUtil.isEmpty(fields)) {
-            log.debug("{} has not any field", resultCls.getName());
-            return Collections.emptySet();
+        if (depth >= (null != dictProps ? dictProps.getMaxDepth() : DictCst.DEFAULT_MAX_DEPTH)) {
+            return;
         }
-
-        log.debug("{} injection dict, field size: {}", resultCls.getName(), fields.length);
-        Set<DictId> dictSet = new HashSet<>(4);
-        Set<DictId> subDictSet;
-        for (Field field : fields) {
-            subDictSet = injectionDict(dictObj, field, isQuery, dictMap, dictProps);
-            if (null != subDictSet && !subDictSet.isEmpty()) {
-                dictSet.addAll(subDictSet);
-            }
+        // 深度解析
+        List<DictAccessor> children = plan.getChildren();
+        for (int i = 0, size = children.size(); i < size; i++) {
+            queryDict(children.get(i).get(dictObj), visited, depth + 1, dictSet, dictProps);
         }
-        return dictSet;
     }
 
     /**
-     * 获取字典值注入的 fieldName
+     * 获取集合值的各个 id
      *
-     * @param dictId   dictId annotation
-     * @param dictName 字典fieldName
-     * @return 注入目标字段的名称，默认为 dictFieldName去年 DictId（如果有该后缀）再拼接上DictItem
+     * @param id dict id 属性的值
+     * @return 集合、数组中的非空 id，单个 id 时为null
      * @author chad
-     * @since 1 by chad at 2023/8/25
+     * @since 3 by chad at 2023/10/2
      */
-    private static String getTargetName(DictId dictId, String dictName,
-                                        DictAutoProperties dictProps) {
-        String targetName = dictId.targetField();
-        if (CharSequenceUtil.isNotEmpty(targetName)) {
-            return targetName.trim();
-        }
-        // 自动拼接
-        int suffixIndex = dictName.indexOf(dictProps.getDictIdSuffix());
-        if (suffixIndex > 0) {
-            dictName = dictName.substring(0, suffixIndex);
-        }
-        return dictName + dictProps.getDictItemSuffix();
+    @Nullable
+    public static List<Object> ids(Object id) {
+        if (id instanceof Collection) {
+            Collection<?> collection = (Collection<?>) id;
+            List<Object> ids = new ArrayList<>(collection.size());
+            for (Object o : collection) {
+                if (!ObjectUtil.isEmpty(o)) {
+                    ids.add(o);
+                }
+            }
+            return ids;
+        }
+        if (id.getClass().isArray()) {
+            int length = Array.getLength(id);
+            List<Object> ids = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                Object o = Array.get(id, i);
+                if (!ObjectUtil.isEmpty(o)) {
+                    ids.add(o);
+                }
+            }
+            return ids;
+        }
+        return null;
     }
 
     /**
@@ -0,0 +1,220 @@
+package io.github.chad2li.dictauto.base.aop;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.dto.DictKeyDto;
+import io.github.chad2li.dictauto.base.dto.LazyDictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.CachingDictService;
+import io.github.chad2li.dictauto.base.service.IDictService;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * DictAopHandlerTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/27 11:00
+ */
+public class DictAopHandlerTest {
+
+    @Test
+    public void asyncTimeout() {
+        DictAutoProperties dictProps = asyncProps(DictAutoProperties.Async.Fallback.EMPTY);
+        SlowDictService slow = new SlowDictService();
+        slow.delayMillis = 2000;
+        DictAopHandler handler = new DictAopHandler(slow, dictProps);
+        try {
+            UserVo user = user();
+            long start = System.nanoTime();
+            handler.afterReturning(user);
+            // 超时后不等待，属性保留为空
+            Assert.assertTrue(System.nanoTime() - start < 1_000_000_000L);
+            Assert.assertNull(user.getGenderDictItem());
+        } finally {
+            handler.destroy();
+        }
+    }
+
+    @Test
+    public void asyncStale() {
+        DictAutoProperties dictProps = asyncProps(DictAutoProperties.Async.Fallback.STALE);
+        dictProps.getCache().setTtl(Duration.ZERO);
+        SlowDictService slow = new SlowDictService();
+        DictAopHandler handler = new DictAopHandler(new CachingDictService<>(slow, dictProps.getCache()), dictProps);
+        try {
+            UserVo first = user();
+            handler.afterReturning(first);
+            Assert.assertEquals("男", first.getGenderDictItem().getName());
+            // 缓存已过期且重新加载超时，使用过期的快照
+            slow.delayMillis = 2000;
+            UserVo second = user();
+            handler.afterReturning(second);
+            Assert.assertEquals("男", second.getGenderDictItem().getName());
+        } finally {
+            handler.destroy();
+        }
+    }
+
+    @Test
+    public void lazy() {
+        DictAutoProperties dictProps = new DictAutoProperties();
+        dictProps.getLazy().setEnabled(true);
+        SlowDictService service = new SlowDictService();
+        DictAopHandler handler = new DictAopHandler(service, dictProps);
+        List<UserVo> users = new ArrayList<>();
+        users.add(user());
+        users.add(user());
+        handler.afterReturning(users);
+        LazyDictItemDto<?> lazy = (LazyDictItemDto<?>) users.get(0).getGenderDictItem();
+        // 读取前不查询
+        Assert.assertFalse(lazy.hasResolved());
+        Assert.assertEquals(0, service.count.get());
+        Assert.assertEquals("男", lazy.getName());
+        Assert.assertEquals("男", users.get(1).getGenderDictItem().getName());
+        // 同一响应共用一次查询
+        Assert.assertEquals(1, service.count.get());
+    }
+
+    @Test
+    public void idempotent() {
+        DictAutoProperties dictProps = new DictAutoProperties();
+        dictProps.getIdempotent().setEnabled(true);
+        SlowDictService service = new SlowDictService();
+        CachingDictService<String, DictItemDto<String>> caching = new CachingDictService<>(service,
+                dictProps.getCache());
+        DictAopHandler handler = new DictAopHandler(caching, dictProps);
+        try {
+            UserVo user = user();
+            handler.afterReturning(user);
+            Assert.assertEquals("男", user.getGenderDictItem().getName());
+            // 同一版本不再遍历
+            user.setGenderDictItem(null);
+            handler.afterReturning(user);
+            Assert.assertNull(user.getGenderDictItem());
+            // 快照更新后重新注入
+            caching.evict("gender");
+            handler.afterReturning(user);
+            Assert.assertEquals("男", user.getGenderDictItem().getName());
+            Assert.assertEquals(2, service.count.get());
+        } finally {
+            handler.destroy();
+        }
+
+        // 无本地缓存时不生效，每次重新遍历
+        handler = new DictAopHandler(service, dictProps);
+        UserVo user = user();
+        handler.afterReturning(user);
+        user.setGenderDictItem(null);
+        handler.afterReturning(user);
+        Assert.assertEquals("男", user.getGenderDictItem().getName());
+    }
+
+    @Test
+    public void path() {
+        KeysDictService service = new KeysDictService();
+        DictAopHandler handler = new DictAopHandler(service, new DictAutoProperties());
+        AddressVo address = new AddressVo();
+        address.setGenderDictId("1");
+        address.setCity("hangzhou");
+        handler.afterReturning(address);
+        // 路径包含未被引用的祖先
+        Assert.assertEquals("浙江/杭州", address.getCityPath());
+        Assert.assertEquals("杭州", address.getCityDictItem().getName());
+        Assert.assertEquals("男", address.getGenderDictItem().getName());
+        // 路径类型查询全部，其他类型仍按 key 查询
+        Assert.assertEquals(Collections.singletonList("city"), service.listTypes);
+        Assert.assertEquals(Collections.singletonList("gender"), service.keyTypes);
+    }
+
+    private static DictAutoProperties asyncProps(DictAutoProperties.Async.Fallback fallback) {
+        DictAutoProperties dictProps = new DictAutoProperties();
+        dictProps.getAsync().setEnabled(true);
+        dictProps.getAsync().setTimeout(Duration.ofMillis(200));
+        dictProps.getAsync().setFallback(fallback);
+        return dictProps;
+    }
+
+    private static UserVo user() {
+        UserVo user = new UserVo();
+        user.setGenderDictId("1");
+        return user;
+    }
+
+    private static class SlowDictService implements IDictService<String, DictItemDto<String>> {
+        private volatile long delayMillis;
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public List<DictItemDto<String>> list(String... type) {
+            count.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<DictItemDto<String>> list = new ArrayList<>();
+            list.add(new DictItemDto<>("1", "0", "gender", "男"));
+            return list;
+        }
+    }
+
+    /**
+     * 实现 listByKeys，仅返回被引用的字典项
+     */
+    private static class KeysDictService implements IDictService<String, DictItemDto<String>> {
+        private final List<String> listTypes = new ArrayList<>();
+        private final List<String> keyTypes = new ArrayList<>();
+        private final List<DictItemDto<String>> all = Arrays.asList(
+                new DictItemDto<>("1", "0", "gender", "男"),
+                new DictItemDto<>("zhejiang", "0", "city", "浙江"),
+                new DictItemDto<>("hangzhou", "zhejiang", "city", "杭州"));
+
+        @Override
+        public List<DictItemDto<String>> list(String... type) {
+            List<String> types = Arrays.asList(type);
+            listTypes.addAll(types);
+            return all.stream().filter(it -> types.contains(it.getType())).collect(Collectors.toList());
+        }
+
+        @Override
+        public List<DictItemDto<String>> listByKeys(Collection<DictKeyDto> keys) {
+            keys.forEach(it -> keyTypes.add(it.getType()));
+            return all.stream().filter(it -> keys.stream().anyMatch(key -> key.getType().equals(it.getType())
+                    && key.getId().equals(it.getId()))).collect(Collectors.toList());
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class AddressVo {
+        @DictId(type = "gender")
+        private String genderDictId;
+        @DictId(type = "city", parentField = "province", pathField = "cityPath")
+        private String city;
+        private String province = "zhejiang";
+        private DictItemDto<String> genderDictItem;
+        private DictItemDto<String> cityDictItem;
+        private String cityPath;
+    }
+
+    @Getter
+    @Setter
+    public static class UserVo {
+        @DictId(type = "gender")
+        private String genderDictId;
+        private DictItemDto<String> genderDictItem;
+    }
+}
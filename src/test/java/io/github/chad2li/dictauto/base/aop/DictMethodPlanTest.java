@@ -0,0 +1,72 @@
+package io.github.chad2li.dictauto.base.aop;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * DictMethodPlanTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/25 11:00
+ */
+public class DictMethodPlanTest {
+
+    @Test
+    public void of() throws NoSuchMethodException {
+        Assert.assertFalse(plan("none").isReachable());
+        Assert.assertFalse(plan("amounts").isReachable());
+
+        DictMethodPlan users = plan("users");
+        Assert.assertTrue(users.isReachable());
+        Assert.assertArrayEquals(new String[]{"gender", "city"}, users.getTypes());
+        // 按元素类型计算
+        Assert.assertArrayEquals(new String[]{"gender", "city"}, plan("stream").getTypes());
+        // 运行时类型未知，需要遍历
+        DictMethodPlan any = plan("any");
+        Assert.assertTrue(any.isReachable());
+        Assert.assertEquals(0, any.getTypes().length);
+    }
+
+    private static DictMethodPlan plan(String name) throws NoSuchMethodException {
+        return DictMethodPlan.of(Api.class.getDeclaredMethod(name));
+    }
+
+    interface Api {
+        void none();
+
+        Map<String, List<BigDecimal>> amounts();
+
+        List<UserVo> users();
+
+        Stream<UserVo> stream();
+
+        Object any();
+    }
+
+    @Getter
+    @Setter
+    public static class UserVo {
+        @DictId(type = "gender")
+        private String genderDictId;
+        private DictItemDto<String> genderDictItem;
+        private AddressVo address;
+    }
+
+    @Getter
+    @Setter
+    public static final class AddressVo {
+        @DictId(type = "city")
+        private String cityDictId;
+        private DictItemDto<String> cityDictItem;
+    }
+}
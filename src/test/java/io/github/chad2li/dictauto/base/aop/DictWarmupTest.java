@@ -0,0 +1,73 @@
+package io.github.chad2li.dictauto.base.aop;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.annotation.DictResult;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.CachingDictService;
+import io.github.chad2li.dictauto.base.service.IDictService;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DictWarmupTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/3 11:00
+ */
+public class DictWarmupTest {
+
+    @Test
+    public void warmUp() throws NoSuchMethodException {
+        AtomicInteger count = new AtomicInteger();
+        IDictService<String, DictItemDto<String>> delegate = type -> {
+            count.incrementAndGet();
+            List<DictItemDto<String>> list = new ArrayList<>();
+            for (String t : type) {
+                list.add(new DictItemDto<>("1", "0", t, t + "1"));
+            }
+            return list;
+        };
+        DictAutoProperties dictProps = new DictAutoProperties();
+        CachingDictService<String, DictItemDto<String>> caching = new CachingDictService<>(delegate,
+                dictProps.getCache());
+        DictAopHandler handler = new DictAopHandler(caching, dictProps);
+        try {
+            Set<String> types = new DictWarmup(handler, dictProps)
+                    .warmUp(Collections.singletonList(DictWarmupTest.class.getPackage().getName()));
+            Assert.assertTrue(types.contains("warmup"));
+            Assert.assertTrue(types.contains("gender"));
+            // 一次加载所有类型，之后使用缓存
+            Assert.assertEquals(1, count.get());
+            caching.index("warmup", "gender");
+            Assert.assertEquals(1, count.get());
+            Assert.assertTrue(handler.methodPlan(OrderController.class.getMethod("get")).isReachable());
+        } finally {
+            handler.destroy();
+        }
+    }
+
+    public static class OrderController {
+        @DictResult
+        public OrderVo get() {
+            return new OrderVo();
+        }
+    }
+
+    @Getter
+    @Setter
+    public static final class OrderVo {
+        @DictId(type = "warmup")
+        private String statusDictId;
+        private DictItemDto<String> statusDictItem;
+    }
+}
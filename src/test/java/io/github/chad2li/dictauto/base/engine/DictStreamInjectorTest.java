@@ -0,0 +1,103 @@
+package io.github.chad2li.dictauto.base.engine;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.index.DictIndex;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * DictStreamInjectorTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/21 14:00
+ */
+public class DictStreamInjectorTest {
+
+    @Test
+    public void wrap() {
+        DictAutoProperties dictProps = new DictAutoProperties();
+        dictProps.getStream().setChunkSize(10);
+        DictIndex index = DictIndex.of(Collections.singletonList(new DictItemDto<>(1L, 0L, "gender", "男")));
+        AtomicInteger loadCount = new AtomicInteger();
+        Function<DictCollector, DictIndex> loader = collector -> {
+            loadCount.incrementAndGet();
+            return index;
+        };
+        AtomicInteger produced = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<UserVo> source = IntStream.range(0, 25).mapToObj(i -> {
+            produced.incrementAndGet();
+            UserVo user = new UserVo();
+            user.setGender(1L);
+            return user;
+        }).onClose(() -> closed.set(true));
+
+        List<UserVo> result = new ArrayList<>();
+        try (Stream<UserVo> stream = DictStreamInjector.wrap(source, loader, r -> {
+        }, dictProps)) {
+            // 惰性：未消费前不读取
+            Assert.assertEquals(0, produced.get());
+            stream.limit(5).forEach(result::add);
+            // 仅读取了第一块
+            Assert.assertEquals(10, produced.get());
+        }
+        Assert.assertTrue(closed.get());
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals("男", result.get(0).getGenderDictItem().getName());
+
+        List<UserVo> all = DictStreamInjector.wrap(IntStream.range(0, 25).mapToObj(i -> {
+            UserVo user = new UserVo();
+            user.setGender(1L);
+            return user;
+        }), loader, r -> {
+        }, dictProps).collect(Collectors.toList());
+        Assert.assertEquals(25, all.size());
+        Assert.assertEquals(4, loadCount.get());
+        all.forEach(it -> Assert.assertEquals("男", it.getGenderDictItem().getName()));
+    }
+
+    @Test
+    public void report() {
+        DictAutoProperties dictProps = new DictAutoProperties();
+        dictProps.getStream().setChunkSize(10);
+        dictProps.getMissing().setPolicy(DictAutoProperties.Missing.Policy.REPORT);
+        DictIndex index = DictIndex.of(Collections.singletonList(new DictItemDto<>(1L, 0L, "gender", "男")));
+        List<DictMissingReport> reports = new ArrayList<>();
+        Iterator<UserVo> iterator = DictStreamInjector.wrap(IntStream.range(0, 25).mapToObj(i -> {
+            UserVo user = new UserVo();
+            user.setGender(i % 5 == 0 ? 9L : 1L);
+            return user;
+        }).iterator(), collector -> index, reports::add, dictProps);
+        List<UserVo> all = new ArrayList<>();
+        iterator.forEachRemaining(all::add);
+        // 每块汇总一次
+        Assert.assertEquals(3, reports.size());
+        Assert.assertEquals(Arrays.asList(2, 2, 1), reports.stream()
+                .map(it -> it.counts().get("gender")).collect(Collectors.toList()));
+        Assert.assertNull(all.get(0).getGenderDictItem());
+        Assert.assertEquals("男", all.get(1).getGenderDictItem().getName());
+    }
+
+    @Data
+    public static class UserVo {
+        @DictId(type = "gender")
+        private Long gender;
+        private DictItemDto<Long> genderDictItem;
+    }
+}
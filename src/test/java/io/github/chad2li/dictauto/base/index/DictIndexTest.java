@@ -0,0 +1,81 @@
+package io.github.chad2li.dictauto.base.index;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DictIndexTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/14 15:10
+ */
+public class DictIndexTest {
+
+    @Test
+    public void get() {
+        DictIndex index = DictIndex.of(Arrays.asList(
+                new DictItemDto<>(1L, 0L, "gender", "男"),
+                new DictItemDto<>("hangzhou", "zhejiang", "city", "杭州"),
+                new DictItemDto<>("zhejiang", null, "city", "浙江")));
+        // long、int、String 视为同一 key
+        Assert.assertEquals("男", index.get("gender", "0", "1").getName());
+        Assert.assertEquals("男", index.getLong("gender", 0, 1L).getName());
+        Assert.assertEquals("男", index.getInt("gender", 0L, 1).getName());
+        Assert.assertEquals("男", index.get("gender", " 0 ", 1).getName());
+        Assert.assertNull(index.get("gender", "0", "01"));
+        Assert.assertNull(index.getLong("gender", "1", 1L));
+        // String
+        Assert.assertEquals("杭州", index.get("city", "zhejiang", "hangzhou").getName());
+        Assert.assertEquals("浙江", index.get("city", null, "zhejiang").getName());
+        Assert.assertEquals("浙江", index.get("city", "", "zhejiang").getName());
+        Assert.assertNull(index.get("role", null, "admin"));
+    }
+
+    @Test
+    public void largeIndex() {
+        List<DictItemDto<Long>> list = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            list.add(new DictItemDto<>(i, i % 10, "region", "r" + i));
+        }
+        DictIndex index = DictIndex.of(list);
+        for (long i = 0; i < 10_000; i++) {
+            Assert.assertEquals("r" + i, index.get("region", i % 10, i).getName());
+        }
+        Assert.assertTrue(DictKeys.isCanonicalLong(String.valueOf(Long.MAX_VALUE)));
+        Assert.assertTrue(DictKeys.isCanonicalLong(String.valueOf(Long.MIN_VALUE)));
+        Assert.assertFalse(DictKeys.isCanonicalLong("9223372036854775808"));
+        Assert.assertFalse(DictKeys.isCanonicalLong("-0"));
+    }
+
+    @Test
+    public void path() {
+        DictIndex index = DictIndex.of(Arrays.asList(
+                new DictItemDto<>(330000L, 0L, "region", "浙江"),
+                new DictItemDto<>(330100L, 330000L, "region", "杭州"),
+                new DictItemDto<>(330106L, 330100L, "region", "西湖"),
+                new DictItemDto<>("x", "y", "region", "环1"),
+                new DictItemDto<>("y", "x", "region", "环2")));
+        List<DictItemDto<?>> path = index.path("region", "330100", 330106);
+        Assert.assertEquals(3, path.size());
+        Assert.assertEquals("浙江", path.get(0).getName());
+        Assert.assertEquals("杭州", path.get(1).getName());
+        Assert.assertSame(index.get("region", 330100L, 330106L), path.get(2));
+        Assert.assertEquals(1, index.path("region", 0, 330000).size());
+        Assert.assertNull(index.path("region", 0, 1));
+        // 数据有环时不会无限循环
+        List<DictItemDto<?>> cycle = index.path("region", "x", "y");
+        Assert.assertEquals("环2", cycle.get(cycle.size() - 1).getName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void duplicate() {
+        DictIndex.of(Arrays.asList(new DictItemDto<>(1L, 0L, "gender", "男"),
+                new DictItemDto<>("1", "0", "gender", "男")));
+    }
+}
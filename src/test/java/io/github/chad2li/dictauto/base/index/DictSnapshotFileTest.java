@@ -0,0 +1,97 @@
+package io.github.chad2li.dictauto.base.index;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DictSnapshotFileTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/28 11:00
+ */
+public class DictSnapshotFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readWrite() throws IOException {
+        List<DictItemDto<?>> cities = new ArrayList<>();
+        cities.add(new DictItemDto<>("hangzhou", "zhejiang", "city", "杭州"));
+        cities.add(new DictItemDto<>("zhejiang", null, "city", "浙江"));
+        for (int i = 0; i < 1000; i++) {
+            cities.add(new DictItemDto<>("c" + i, "zhejiang", "city", "城市" + i));
+        }
+        Path file = folder.getRoot().toPath().resolve("dict.snapshot");
+        DictSnapshotFile.write(file, Arrays.asList(
+                new DictTypeIndex("gender", Arrays.asList(
+                        new DictItemDto<>(1L, 0L, "gender", "男"),
+                        new DictItemDto<>(2, 0, "gender", "女"))),
+                new DictTypeIndex("city", cities)));
+
+        List<DictTypeIndex> indexes = DictSnapshotFile.read(file);
+        Assert.assertEquals(2, indexes.size());
+        DictTypeIndex gender = indexes.get(0);
+        Assert.assertEquals("gender", gender.getType());
+        Assert.assertEquals(2, gender.size());
+        // long、int、String 视为同一 key
+        Assert.assertEquals("男", gender.get("0", "1").getName());
+        Assert.assertEquals("女", gender.getLong(0, 2L).getName());
+        Assert.assertNull(gender.get("1", 1L));
+        // 保留原始类型，命中的字典项复用
+        Assert.assertEquals(1L, gender.get(0, 1).getId());
+        Assert.assertEquals(2, gender.get(0, 2).getId());
+        Assert.assertSame(gender.get(0, 1), gender.getItems().get(0));
+
+        DictTypeIndex city = indexes.get(1);
+        Assert.assertEquals(1002, city.size());
+        Assert.assertEquals("杭州", city.get("zhejiang", "hangzhou").getName());
+        Assert.assertEquals("浙江", city.get(null, "zhejiang").getName());
+        Assert.assertEquals("城市999", city.get("zhejiang", "c999").getName());
+        Assert.assertNull(city.get(null, "hangzhou"));
+        Assert.assertEquals(1002, city.getItems().size());
+    }
+
+    @Test
+    public void pathAndKeys() throws IOException {
+        List<DictItemDto<?>> regions = new ArrayList<>();
+        regions.add(new DictItemDto<>("浙江", null, "region", "浙江省"));
+        regions.add(new DictItemDto<>("杭州", "浙江", "region", "杭州市"));
+        regions.add(new DictItemDto<>("西湖\uD83C\uDF0A", "杭州", "region", "西湖区"));
+        regions.add(new DictItemDto<>(null, "杭州", "region", "空"));
+        // 同一 id 在不同 parentId 下重复，路径在该处截止
+        regions.add(new DictItemDto<>("dup", null, "region", "dup1"));
+        regions.add(new DictItemDto<>("dup", "浙江", "region", "dup2"));
+        regions.add(new DictItemDto<>("child", "dup", "region", "child"));
+        Path file = folder.getRoot().toPath().resolve("region.snapshot");
+        DictTypeIndex heap = new DictTypeIndex("region", regions);
+        DictSnapshotFile.write(file, Arrays.asList(heap));
+        DictTypeIndex mapped = DictSnapshotFile.read(file).get(0);
+
+        for (DictTypeIndex index : Arrays.asList(heap, mapped)) {
+            Assert.assertEquals(Arrays.asList("浙江省", "杭州市", "西湖区"), names(index.path("杭州", "西湖\uD83C\uDF0A")));
+            Assert.assertEquals(Arrays.asList("浙江省", "杭州市", "空"), names(index.path("杭州", "")));
+            Assert.assertEquals(Arrays.asList("child"), names(index.path("dup", "child")));
+            Assert.assertNull(index.path("杭州", "西湖"));
+        }
+        // 空 id 读取后仍为 null
+        Assert.assertNull(mapped.get("杭州", "").getId());
+    }
+
+    private static List<String> names(List<DictItemDto<?>> path) {
+        List<String> names = new ArrayList<>(path.size());
+        for (DictItemDto<?> item : path) {
+            names.add(item.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.chad2li.dictauto.base.jackson;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.IDictService;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DictJacksonModuleTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/10/2 11:00
+ */
+public class DictJacksonModuleTest {
+
+    @Test
+    public void serialize() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        IDictService<String, DictItemDto<String>> dictService = type -> {
+            count.incrementAndGet();
+            List<DictItemDto<String>> list = new ArrayList<>();
+            list.add(new DictItemDto<>("1", "0", "gender", "男"));
+            list.add(new DictItemDto<>("2", "0", "gender", "女"));
+            return list;
+        };
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new DictJacksonModule(dictService, new DictAutoProperties()));
+
+        UserVo user = new UserVo();
+        user.setGenderDictId("1");
+        user.setGenders(Arrays.asList("2", "1"));
+        UserVo other = new UserVo();
+        other.setGenderDictId("2");
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(Arrays.asList(user, other)));
+        Assert.assertEquals("男", json.get(0).get("gender").get("name").asText());
+        Assert.assertEquals("女", json.get(0).get("gendersDictItem").get(0).get("name").asText());
+        Assert.assertEquals("女", json.get(1).get("gender").get("name").asText());
+        Assert.assertTrue(json.get(1).get("gendersDictItem").isNull());
+        // 同一次序列化每个类型只查询一次，不修改对象
+        Assert.assertEquals(1, count.get());
+        Assert.assertNull(user.getGenderDictItem());
+    }
+
+    @Getter
+    @Setter
+    public static class UserVo {
+        @DictId(type = "gender")
+        private String genderDictId;
+        @JsonProperty("gender")
+        private DictItemDto<String> genderDictItem;
+        @DictId(type = "gender")
+        private List<String> genders;
+        private List<DictItemDto<String>> gendersDictItem;
+    }
+}
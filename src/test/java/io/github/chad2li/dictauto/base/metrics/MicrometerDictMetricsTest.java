@@ -0,0 +1,67 @@
+package io.github.chad2li.dictauto.base.metrics;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.aop.DictAopHandler;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import io.github.chad2li.dictauto.base.service.CachingDictService;
+import io.github.chad2li.dictauto.base.service.IDictService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MicrometerDictMetricsTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/23 11:00
+ */
+public class MicrometerDictMetricsTest {
+
+    @Test
+    public void afterReturning() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DictMetrics metrics = new MicrometerDictMetrics(registry);
+        DictAutoProperties dictProps = new DictAutoProperties();
+        IDictService<Long, DictItemDto<Long>> dictService = type ->
+                new ArrayList<>(Collections.singletonList(new DictItemDto<>(1L, 0L, "gender", "男")));
+        try (CachingDictService<Long, DictItemDto<Long>> caching =
+                     new CachingDictService<>(dictService, dictProps.getCache(), metrics)) {
+            DictAopHandler handler = new DictAopHandler(caching, dictProps, metrics);
+            handler.afterReturning(users(3));
+            handler.afterReturning(users(2));
+        }
+
+        Assert.assertEquals(2, registry.get("dict.auto.collect").tag("method", "unknown").timer().count());
+        Assert.assertEquals(2, registry.get("dict.auto.fetch").timer().count());
+        Assert.assertEquals(2, registry.get("dict.auto.inject").timer().count());
+        Assert.assertEquals(5, registry.get("dict.auto.objects").counter().count(), 0);
+        Assert.assertEquals(5, registry.get("dict.auto.slots").tag("type", "gender").counter().count(), 0);
+        Assert.assertEquals(2, registry.get("dict.auto.items").tag("type", "gender").counter().count(), 0);
+        Assert.assertEquals(1, registry.get("dict.auto.cache").tag("result", "miss").counter().count(), 0);
+        Assert.assertEquals(1, registry.get("dict.auto.cache").tag("result", "hit").counter().count(), 0);
+    }
+
+    private static List<UserVo> users(int size) {
+        UserVo[] users = new UserVo[size];
+        for (int i = 0; i < size; i++) {
+            users[i] = new UserVo();
+            users[i].setGenderDictId(1L);
+        }
+        return Arrays.asList(users);
+    }
+
+    @Data
+    public static class UserVo {
+        @DictId(type = "gender")
+        private Long genderDictId;
+        private DictItemDto<Long> genderDictItem;
+    }
+}
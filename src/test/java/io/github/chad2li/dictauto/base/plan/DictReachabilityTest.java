@@ -0,0 +1,86 @@
+package io.github.chad2li.dictauto.base.plan;
+
+import io.github.chad2li.dictauto.base.annotation.DictId;
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DictReachabilityTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/24 11:00
+ */
+public class DictReachabilityTest {
+
+    @Test
+    public void reachable() {
+        Assert.assertFalse(DictReachability.reachable(BigDecimal.class));
+        Assert.assertFalse(DictReachability.reachable(byte[].class));
+        Assert.assertFalse(DictReachability.reachable(MoneyVo.class));
+        Assert.assertFalse(DictReachability.reachable(CycleVo.class));
+        Assert.assertTrue(DictReachability.reachable(OrderVo.class));
+        Assert.assertTrue(DictReachability.reachable(WrapperVo.class));
+    }
+
+    @Test
+    public void plan() {
+        DictAutoProperties dictProps = new DictAutoProperties();
+        Assert.assertTrue(DictClassPlan.of(MoneyVo.class, dictProps).isEmpty());
+        DictClassPlan plan = DictClassPlan.of(OrderVo.class, dictProps);
+        Assert.assertEquals(1, plan.getSlots().size());
+        // 仅 items、any 需要深入解析，时间、金额、字符串集合、final 的无字典类均跳过
+        Assert.assertEquals(2, plan.getChildren().size());
+    }
+
+    @Getter
+    @Setter
+    public static final class MoneyVo {
+        private BigDecimal amount;
+        private LocalDateTime time;
+        private Date date;
+        private UUID uuid;
+        private byte[] raw;
+        private List<String> tags;
+        private Map<String, BigDecimal> prices;
+    }
+
+    @Getter
+    @Setter
+    public static final class CycleVo {
+        private CycleVo parent;
+        private List<CycleVo> children;
+        private MoneyVo money;
+    }
+
+    @Getter
+    @Setter
+    public static final class OrderVo {
+        @DictId(type = "status")
+        private String statusDictId;
+        private DictItemDto<String> statusDictItem;
+        private MoneyVo money;
+        private CycleVo cycle;
+        private Map<String, List<MoneyVo>> moneyMap;
+        private List<OrderVo> items;
+        private Object any;
+    }
+
+    @Getter
+    @Setter
+    public static final class WrapperVo {
+        private CycleVo cycle;
+        private Map<Long, OrderVo[]> orders;
+    }
+}
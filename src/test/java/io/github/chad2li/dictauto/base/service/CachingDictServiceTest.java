@@ -0,0 +1,182 @@
+package io.github.chad2li.dictauto.base.service;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.metrics.DictMetrics;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CachingDictServiceTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/15 14:30
+ */
+public class CachingDictServiceTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void cache() {
+        CountingDictService delegate = new CountingDictService();
+        DictAutoProperties.Cache cacheProps = new DictAutoProperties.Cache();
+        try (CachingDictService<String, DictItemDto<String>> service = new CachingDictService<>(delegate, cacheProps)) {
+            Assert.assertEquals(1, service.list("gender").size());
+            Assert.assertEquals("男", service.index("gender").get("gender", "0", "1").getName());
+            Assert.assertEquals(1, delegate.count.get());
+            // 未缓存的类型单独加载
+            Assert.assertEquals(2, service.list("gender", "city").size());
+            Assert.assertEquals(2, delegate.count.get());
+            service.evict("gender");
+            service.list("gender");
+            Assert.assertEquals(3, delegate.count.get());
+        }
+    }
+
+    @Test
+    public void refreshAhead() throws InterruptedException {
+        CountingDictService delegate = new CountingDictService();
+        DictAutoProperties.Cache cacheProps = new DictAutoProperties.Cache();
+        cacheProps.setRefreshAhead(cacheProps.getTtl());
+        try (CachingDictService<String, DictItemDto<String>> service = new CachingDictService<>(delegate, cacheProps)) {
+            service.list("gender");
+            delegate.latch = new CountDownLatch(1);
+            // 使用旧快照，后台刷新
+            Assert.assertEquals(1, service.list("gender").size());
+            Assert.assertTrue(delegate.latch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(2, delegate.count.get());
+        }
+    }
+
+    @Test
+    public void expired() {
+        CountingDictService delegate = new CountingDictService();
+        DictAutoProperties.Cache cacheProps = new DictAutoProperties.Cache();
+        cacheProps.setTtl(Duration.ZERO);
+        try (CachingDictService<String, DictItemDto<String>> service = new CachingDictService<>(delegate, cacheProps)) {
+            service.list("gender");
+            service.list("gender");
+            Assert.assertEquals(2, delegate.count.get());
+        }
+    }
+
+    @Test
+    public void prefetch() {
+        CountingDictService delegate = new CountingDictService();
+        DictAutoProperties.Cache cacheProps = new DictAutoProperties.Cache();
+        try (CachingDictService<String, DictItemDto<String>> service = new CachingDictService<>(delegate, cacheProps)) {
+            service.prefetch("gender", "city");
+            service.prefetch("gender");
+            // 等待预取完成，不重复加载
+            Assert.assertEquals(2, service.list("gender", "city").size());
+            Assert.assertEquals(1, delegate.count.get());
+        }
+    }
+
+    @Test
+    public void version() {
+        CountingDictService delegate = new CountingDictService();
+        DictAutoProperties.Cache cacheProps = new DictAutoProperties.Cache();
+        cacheProps.setTtl(Duration.ZERO);
+        try (CachingDictService<String, DictItemDto<String>> service = new CachingDictService<>(delegate, cacheProps)) {
+            service.list("gender", "city");
+            // 重新加载，字典项未变化
+            service.list("gender");
+            Assert.assertEquals(0, service.version());
+            delegate.genderName = "男性";
+            service.list("gender");
+            Assert.assertEquals(1, service.version());
+            service.evict("city");
+            Assert.assertEquals(2, service.version());
+        }
+    }
+
+    @Test
+    public void prefetchTimeout() {
+        CountingDictService delegate = new CountingDictService();
+        delegate.block = new CountDownLatch(1);
+        DictAutoProperties.Cache cacheProps = new DictAutoProperties.Cache();
+        try (CachingDictService<String, DictItemDto<String>> service =
+                     new CachingDictService<>(delegate, cacheProps, DictMetrics.NOOP, Duration.ofMillis(50))) {
+            service.prefetch("gender");
+            // 预取未完成，超时后同步加载
+            Assert.assertEquals(1, service.list("gender").size());
+            Assert.assertEquals(2, delegate.count.get());
+        } finally {
+            delegate.block.countDown();
+        }
+    }
+
+    @Test
+    public void restored() throws Exception {
+        DictAutoProperties.Cache cacheProps = new DictAutoProperties.Cache();
+        Path file = folder.getRoot().toPath().resolve("dict.snapshot");
+        cacheProps.setSnapshotFile(file.toString());
+        try (CachingDictService<String, DictItemDto<String>> service =
+                     new CachingDictService<>(new CountingDictService(), cacheProps)) {
+            service.list("gender");
+            for (int i = 0; i < 500 && !Files.exists(file); i++) {
+                Thread.sleep(10);
+            }
+        }
+        CountingDictService delegate = new CountingDictService();
+        try (CachingDictService<String, DictItemDto<String>> service = new CachingDictService<>(delegate, cacheProps)) {
+            // 快照文件中的字典项不保留子类
+            Assert.assertEquals(DictItemDto.class, service.index("gender").get("gender", "0", "1").getClass());
+            // 属性为子类时同步加载
+            Assert.assertTrue(service.index(false, "gender").get("gender", "0", "1") instanceof GenderItem);
+            Assert.assertTrue(service.staleIndex(false, "gender").get("gender", "0", "1") instanceof GenderItem);
+        }
+    }
+
+    private static class GenderItem extends DictItemDto<String> {
+        private GenderItem(String id, String parentId, String type, String name) {
+            super(id, parentId, type, name);
+        }
+    }
+
+    private static class CountingDictService implements IDictService<String, DictItemDto<String>> {
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile CountDownLatch latch;
+        /**
+         * 第一次加载时等待
+         */
+        private volatile CountDownLatch block;
+        private volatile String genderName = "男";
+
+        @Override
+        public List<DictItemDto<String>> list(String... type) {
+            if (1 == count.incrementAndGet() && null != block) {
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<DictItemDto<String>> list = new ArrayList<>();
+            for (String t : type) {
+                if ("gender".equals(t)) {
+                    list.add(new GenderItem("1", "0", "gender", genderName));
+                } else if ("city".equals(t)) {
+                    list.add(new DictItemDto<>("hangzhou", "zhejiang", "city", "杭州"));
+                }
+            }
+            if (null != latch) {
+                latch.countDown();
+            }
+            return list;
+        }
+    }
+}
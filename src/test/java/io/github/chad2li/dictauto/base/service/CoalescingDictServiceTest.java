@@ -0,0 +1,101 @@
+package io.github.chad2li.dictauto.base.service;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CoalescingDictServiceTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/26 11:00
+ */
+public class CoalescingDictServiceTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void singleFlight() throws Exception {
+        BlockingDictService delegate = new BlockingDictService();
+        CoalescingDictService<String, DictItemDto<String>> service =
+                new CoalescingDictService<>(delegate, new DictAutoProperties.Coalesce());
+        CompletableFuture<List<DictItemDto<String>>> leader =
+                CompletableFuture.supplyAsync(() -> service.list("gender"), executor);
+        Assert.assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<List<DictItemDto<String>>>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(CompletableFuture.supplyAsync(() -> service.list("gender"), executor));
+        }
+        // 等待并发请求加入后放行
+        Thread.sleep(200);
+        delegate.release.countDown();
+        Assert.assertEquals(1, leader.get(5, TimeUnit.SECONDS).size());
+        for (CompletableFuture<List<DictItemDto<String>>> follower : followers) {
+            Assert.assertEquals("男", follower.get(5, TimeUnit.SECONDS).get(0).getName());
+        }
+        Assert.assertEquals(1, delegate.calls.size());
+    }
+
+    @Test
+    public void window() throws Exception {
+        BlockingDictService delegate = new BlockingDictService();
+        delegate.release.countDown();
+        DictAutoProperties.Coalesce coalesceProps = new DictAutoProperties.Coalesce();
+        coalesceProps.setWindow(Duration.ofMillis(300));
+        CoalescingDictService<String, DictItemDto<String>> service = new CoalescingDictService<>(delegate, coalesceProps);
+        CompletableFuture<List<DictItemDto<String>>> gender =
+                CompletableFuture.supplyAsync(() -> service.list("gender"), executor);
+        Thread.sleep(50);
+        CompletableFuture<List<DictItemDto<String>>> city =
+                CompletableFuture.supplyAsync(() -> service.list("city"), executor);
+        Assert.assertEquals("男", gender.get(5, TimeUnit.SECONDS).get(0).getName());
+        Assert.assertEquals("杭州", city.get(5, TimeUnit.SECONDS).get(0).getName());
+        // 窗口内的类型合并为一次调用
+        Assert.assertEquals(1, delegate.calls.size());
+        Assert.assertEquals(Arrays.asList("gender", "city"), delegate.calls.get(0));
+    }
+
+    private static class BlockingDictService implements IDictService<String, DictItemDto<String>> {
+        private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public List<DictItemDto<String>> list(String... type) {
+            calls.add(Arrays.asList(type));
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<DictItemDto<String>> list = new ArrayList<>();
+            for (String t : type) {
+                if ("gender".equals(t)) {
+                    list.add(new DictItemDto<>("1", "0", "gender", "男"));
+                } else if ("city".equals(t)) {
+                    list.add(new DictItemDto<>("hangzhou", "zhejiang", "city", "杭州"));
+                }
+            }
+            return list;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.chad2li.dictauto.base.service;
+
+import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * InterningDictServiceTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/29 11:00
+ */
+public class InterningDictServiceTest {
+
+    @Test
+    public void intern() {
+        InterningDictService<String, DictItemDto<String>> service = new InterningDictService<>(
+                type -> {
+                    List<DictItemDto<String>> list = new ArrayList<>();
+                    list.add(new DictItemDto<>("1", "0", new String("gender"), new String("男")));
+                    list.add(new DictItemDto<>("2", "0", new String("gender"), new String("女")));
+                    return list;
+                });
+        List<DictItemDto<String>> first = service.list("gender");
+        List<DictItemDto<String>> second = service.list("gender");
+        Assert.assertSame(first.get(0), second.get(0));
+        Assert.assertSame(first.get(1), second.get(1));
+        // 不同字典项共用字符串
+        Assert.assertSame(first.get(0).getType(), first.get(1).getType());
+    }
+
+    @Test
+    public void subclass() {
+        DictItemPool pool = new DictItemPool();
+        // 子类仅比较自身属性，id 不同时不合并
+        ColorItem red = pool.intern(new ColorItem("1", "#f00"));
+        ColorItem other = pool.intern(new ColorItem("2", "#f00"));
+        Assert.assertNotSame(red, other);
+        Assert.assertSame(red, pool.intern(new ColorItem("1", "#f00")));
+        Assert.assertNotSame(red, pool.intern(new ColorItem("1", "#ff0000")));
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = false)
+    private static class ColorItem extends DictItemDto<String> {
+        private String color;
+
+        ColorItem(String id, String color) {
+            super(id, null, "color", "颜色" + id);
+            this.color = color;
+        }
+    }
+}
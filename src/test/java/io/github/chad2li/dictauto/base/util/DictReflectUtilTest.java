@@ -0,0 +1,60 @@
+package io.github.chad2li.dictauto.base.util;
+
+import io.github.chad2li.dictauto.base.plan.DictAccessor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * DictReflectUtilTest
+ *
+ * @author chad
+ * @copyright 2023 chad
+ * @since created at 2023/9/19 15:00
+ */
+public class DictReflectUtilTest {
+
+    @Test
+    public void accessor() {
+        Bean bean = new Bean();
+        // 直接读写属性，不调用 getter/setter
+        DictAccessor name = DictReflectUtil.accessor(DictReflectUtil.getField(Bean.class, "name"));
+        name.set(bean, "chad");
+        Assert.assertEquals("chad", name.get(bean));
+        Assert.assertEquals(0, bean.setCount);
+        DictAccessor age = DictReflectUtil.accessor(DictReflectUtil.getField(Bean.class, "age"));
+        age.set(bean, 18);
+        Assert.assertEquals(18, age.get(bean));
+        // 只读
+        DictAccessor valid = DictReflectUtil.accessor(DictReflectUtil.getField(Bean.class, "valid"), false);
+        Assert.assertEquals(false, valid.get(bean));
+        try {
+            valid.set(bean, true);
+            Assert.fail("not writable");
+        } catch (IllegalStateException ex) {
+            // 只读
+        }
+        // is
+        Assert.assertNotNull(DictReflectUtil.getGetter(Bean.class, DictReflectUtil.getField(Bean.class, "valid")));
+        Assert.assertNull(DictReflectUtil.getGetter(Bean.class, DictReflectUtil.getField(Bean.class, "age")));
+    }
+
+    static class Bean {
+        private String name;
+        private int age;
+        private boolean valid;
+        private int setCount;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.setCount++;
+            this.name = name;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+    }
+}
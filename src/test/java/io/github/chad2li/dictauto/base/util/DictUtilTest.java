@@ -3,13 +3,21 @@ package io.github.chad2li.dictauto.base.util;
 import io.github.chad2li.dictauto.base.annotation.DictId;
 import io.github.chad2li.dictauto.base.cst.DictCst;
 import io.github.chad2li.dictauto.base.dto.DictItemDto;
+import io.github.chad2li.dictauto.base.engine.DictCollector;
+import io.github.chad2li.dictauto.base.plan.DictClassPlan;
+import io.github.chad2li.dictauto.base.plan.DictInjector;
+import io.github.chad2li.dictauto.base.plan.DictInjectors;
 import io.github.chad2li.dictauto.base.properties.DictAutoProperties;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -60,6 +68,223 @@ public class DictUtilTest {
         }
     }
 
+    @Test
+    public void collect() {
+        DemoVo demo = demoVo(true);
+        demo.setGenderDictItem(dict("2", "0", "gender", "女"));
+        DictCollector collector = DictUtil.collect(demo, dictProps);
+        Assert.assertFalse(collector.isEmpty());
+        // role没有getter方法，不收集
+        Assert.assertEquals(new HashSet<>(Arrays.asList("gender", "city")),
+                new HashSet<>(Arrays.asList(collector.types())));
+        // 引用的字典项已去重
+        Assert.assertEquals(3, collector.keys().size());
+        collector.inject(dictMap());
+        // 已有值不覆盖
+        Assert.assertEquals("女", demo.getGenderDictItem().getName());
+        assertDemo(demo.getList().get(0));
+        for (DemoVo demoI : demo.getMap().values()) {
+            assertDemo(demoI);
+        }
+    }
+
+    @Test
+    public void parallel() {
+        dictProps.getParallel().setEnabled(true);
+        dictProps.getParallel().setThreshold(10);
+        dictProps.getParallel().setChunkSize(8);
+        List<DemoVo> list = new ArrayList<>();
+        DemoVo[] array = new DemoVo[100];
+        for (int i = 0; i < 100; i++) {
+            list.add(demoVo(false));
+            array[i] = demoVo(false);
+        }
+        DictUtil.injectionDict(list, dictMap(), dictProps);
+        DictUtil.injectionDict(array, dictMap(), dictProps);
+        list.forEach(this::assertDemo);
+        Arrays.stream(array).forEach(this::assertDemo);
+    }
+
+    @Test
+    public void parallelBackReference() {
+        dictProps.getParallel().setEnabled(true);
+        dictProps.getParallel().setThreshold(10);
+        dictProps.getParallel().setChunkSize(8);
+        // order.list 的每个元素都回指 order
+        DemoVo order = demoVo(false);
+        List<DemoVo> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            DemoVo line = demoVo(false);
+            line.setMap(Collections.singletonMap("order", order));
+            lines.add(line);
+        }
+        order.setList(lines);
+        DictCollector collector = DictUtil.collect(order, dictProps);
+        Assert.assertEquals(101, collector.objectCount());
+        Assert.assertEquals(Integer.valueOf(101), collector.slotCounts().get("gender"));
+        collector.inject(dictMap());
+        assertDemo(order);
+        lines.forEach(this::assertDemo);
+    }
+
+    @Test
+    public void cycleAndDepth() {
+        // 循环引用、共享对象
+        DemoVo demo = demoVo(true);
+        DemoVo shared = demoVo(false);
+        demo.getList().add(demo);
+        demo.getList().add(shared);
+        demo.getMap().put("shared", shared);
+        DictCollector collector = DictUtil.collect(demo, dictProps);
+        // root + list 3 + map 3 + set 3 + shared
+        Assert.assertEquals(11, collector.objectCount());
+        collector.inject(dictMap());
+        assertDemo(demo);
+        assertDemo(shared);
+        Assert.assertEquals(3, DictUtil.queryDictAnnotation(demo).size());
+
+        // 深度限制：root 为第0层
+        dictProps.setMaxDepth(2);
+        DemoVo root = demoVo(false);
+        DemoVo current = root;
+        List<DemoVo> chain = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            DemoVo child = demoVo(false);
+            current.setList(new ArrayList<>(Collections.singletonList(child)));
+            chain.add(child);
+            current = child;
+        }
+        DictUtil.injectionDict(root, dictMap(), dictProps);
+        assertDemo(root);
+        assertDemo(chain.get(0));
+        assertDemo(chain.get(1));
+        Assert.assertNull(chain.get(2).getGenderDictItem());
+        Assert.assertEquals(3, DictUtil.queryDictAnnotation(root, dictProps).size());
+    }
+
+    @Test
+    public void planPerConfig() {
+        DictAutoProperties custom = new DictAutoProperties();
+        custom.setDictItemSuffix("Dict");
+        DictClassPlan plan = DictClassPlan.of(DemoVo.class, custom);
+        // 交替使用不同配置时不重复解析
+        Assert.assertNotSame(plan, DictClassPlan.of(DemoVo.class, dictProps));
+        Assert.assertSame(plan, DictClassPlan.of(DemoVo.class, custom));
+    }
+
+    @Test
+    public void generatedInjector() {
+        // 测试编译时由 DictInjectorProcessor 生成
+        DictInjector<?> injector = DictInjectors.get(DemoVo.class);
+        Assert.assertNotNull(injector);
+        Assert.assertEquals(Arrays.asList("list", "map", "set"), injector.nested());
+        // role没有getter方法，不生成
+        Assert.assertNull(injector.accessor("role"));
+        DemoVo demo = demoVo(false);
+        injector.accessor("cityDict").set(demo, dict("hangzhou", "zhejiang", "city", "杭州"));
+        Assert.assertEquals("杭州", demo.getCityDict().getName());
+    }
+
+    @Test
+    public void generatedTargets() {
+        // 非 private 类由 DictInjectorProcessor 生成注入器，集合、路径属性为注入目标，可写入且不深入解析
+        DictInjector<?> injector = DictInjectors.get(RegionVo.class);
+        Assert.assertNotNull(injector);
+        Assert.assertEquals(Collections.emptyList(), injector.nested());
+        Assert.assertTrue(injector.accessor("gendersDictItem").writable());
+        Assert.assertTrue(injector.accessor("cityPath").writable());
+        RegionVo region = new RegionVo();
+        region.setGenders(Arrays.asList("2", "1"));
+        region.setCity("hangzhou");
+        DictUtil.injectionDict(region, dictMap(), dictProps);
+        Assert.assertEquals(Arrays.asList("女", "男"),
+                region.getGendersDictItem().stream().map(DictItemDto::getName).collect(Collectors.toList()));
+        Assert.assertEquals(Arrays.asList("浙江", "杭州"),
+                region.getCityPath().stream().map(DictItemDto::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void path() {
+        AddressVo address = new AddressVo();
+        address.setCity("hangzhou");
+        address.setCityId("hangzhou");
+        DictUtil.injectionDict(Collections.singletonList(address), dictMap(), dictProps);
+        Assert.assertEquals("杭州", address.getCityDictItem().getName());
+        Assert.assertEquals(Arrays.asList("浙江", "杭州"),
+                address.getCityPath().stream().map(DictItemDto::getName).collect(Collectors.toList()));
+        Assert.assertEquals("浙江 杭州", address.getCityText());
+    }
+
+    @Test
+    public void collectionIds() {
+        TagVo tag = new TagVo();
+        tag.setGenders(Arrays.asList("2", null, "1"));
+        tag.setGenderIds(new long[]{1L, 0L});
+        tag.setEmpty(new String[0]);
+        DictCollector collector = DictUtil.collect(tag, dictProps);
+        // 每个 id 一个key
+        Assert.assertEquals(4, collector.keys().size());
+        collector.inject(dictMap());
+        Assert.assertEquals(Arrays.asList("女", "男"),
+                tag.getGendersDictItem().stream().map(DictItemDto::getName).collect(Collectors.toList()));
+        Assert.assertEquals(Arrays.asList("男", "未知"),
+                tag.getGenderDictItem().stream().map(DictItemDto::getName).collect(Collectors.toList()));
+        Assert.assertNull(tag.getEmptyDictItem());
+    }
+
+    @Test
+    public void missing() {
+        DemoVo demo = demoVo(false);
+        demo.setGender("9");
+        try {
+            DictUtil.collect(demo, dictProps).inject(dictMap());
+            Assert.fail("missing gender");
+        } catch (NullPointerException ex) {
+            // FAIL
+        }
+
+        dictProps.getMissing().setPolicy(DictAutoProperties.Missing.Policy.NULL);
+        demo = demoVo(false);
+        demo.setGender("9");
+        DictUtil.collect(demo, dictProps).inject(dictMap());
+        Assert.assertNull(demo.getGenderDictItem());
+        Assert.assertEquals("杭州", demo.getCityDict().getName());
+
+        dictProps.getMissing().setPolicy(DictAutoProperties.Missing.Policy.PLACEHOLDER);
+        dictProps.getMissing().setPlaceholderName("-");
+        demo = demoVo(false);
+        demo.setGender("9");
+        TagVo tag = new TagVo();
+        tag.setGenders(Arrays.asList("1", "9"));
+        DictUtil.collect(demo, dictProps).inject(dictMap());
+        DictUtil.collect(tag, dictProps).inject(dictMap());
+        Assert.assertEquals("-", demo.getGenderDictItem().getName());
+        Assert.assertNull(demo.getGenderDictItem().getId());
+        // 同类型共用占位字典项，不可修改
+        Assert.assertSame(demo.getGenderDictItem(), tag.getGendersDictItem().get(1));
+        try {
+            demo.getGenderDictItem().setName("x");
+            Assert.fail("placeholder immutable");
+        } catch (UnsupportedOperationException ex) {
+            // 不可修改
+        }
+        // 属性为子类时保留为空
+        GenderVo gender = new GenderVo();
+        gender.setGender("9");
+        DictUtil.collect(gender, dictProps).inject(dictMap());
+        Assert.assertNull(gender.getGenderDictItem());
+
+        dictProps.getMissing().setPolicy(DictAutoProperties.Missing.Policy.REPORT);
+        demo = demoVo(false);
+        demo.setGender("9");
+        DictCollector collector = DictUtil.collect(demo, dictProps);
+        collector.inject(dictMap());
+        Assert.assertNull(demo.getGenderDictItem());
+        Assert.assertEquals(1, collector.missingReport().getItems().size());
+        Assert.assertEquals("9", collector.missingReport().getItems().get(0).getId());
+        Assert.assertEquals(Collections.singletonMap("gender", 1), collector.missingReport().counts());
+    }
+
     private void assertDemo(DemoVo demo) {
         Assert.assertEquals("男", demo.getGenderDictItem().getName());
         Assert.assertEquals("浙江", demo.getProvinceDict().getName());
@@ -133,6 +358,58 @@ public class DictUtilTest {
         return demoVo;
     }
 
+    @Getter
+    @Setter
+    private static class TagVo {
+        @DictId(type = "gender", parent = "0")
+        private List<String> genders;
+        @DictId(type = "gender", parent = "0", targetField = "genderDictItem")
+        private long[] genderIds;
+        @DictId(type = "gender", parent = "0")
+        private String[] empty;
+        private List<DictItemDto<String>> gendersDictItem;
+        private List<DictItemDto<String>> genderDictItem;
+        private List<DictItemDto<String>> emptyDictItem;
+    }
+
+    @Getter
+    @Setter
+    private static class GenderVo {
+        @DictId(type = "gender", parent = "0")
+        private String gender;
+        private GenderItem genderDictItem;
+    }
+
+    private static class GenderItem extends DictItemDto<String> {
+    }
+
+    @Getter
+    @Setter
+    private static class AddressVo {
+        @DictId(type = "city", parentField = "province", pathField = "cityPath")
+        private String city;
+        @DictId(type = "city", parentField = "province", targetField = "none", pathField = "cityText",
+                pathSeparator = " ")
+        private String cityId;
+        private String province = "zhejiang";
+        private DictItemDto<String> cityDictItem;
+        private List<DictItemDto<?>> cityPath;
+        private String cityText;
+    }
+
+    @Getter
+    @Setter
+    static class RegionVo {
+        @DictId(type = "gender", parent = "0")
+        private List<String> genders;
+        @DictId(type = "city", parentField = "province", pathField = "cityPath")
+        private String city;
+        private String province = "zhejiang";
+        private List<DictItemDto<String>> gendersDictItem;
+        private DictItemDto<String> cityDictItem;
+        private List<DictItemDto<?>> cityPath;
+    }
+
     @ToString
     public class DemoVo {
         @DictId(type = "gender", parent = "0")